@@ -0,0 +1,83 @@
+package org.kds.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.kds.reactive.model.FormatNameRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares FormatNameRequestDecoder with Jackson2JsonDecoder decoding a /format body
+ * delivered in chunks of pooled Netty buffers, sampled to get the latency percentiles.
+ *
+ * gradlew jmh -PjmhInclude=RequestDecoderBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestDecoderBenchmark {
+
+    static final ResolvableType TYPE = ResolvableType.forClass(FormatNameRequest.class);
+
+    static final byte[] BODY = ("{\"title\":\"Mr\",\"firstName\":\"John\",\"middleName\":\"J@\","
+            + "\"lastName\":\"Doe\",\"template\":\"formal\"}").getBytes(StandardCharsets.UTF_8);
+
+    // size of the buffers the body arrives in, the whole body fits in one at 1024
+    @Param({"16", "1024"})
+    int chunk;
+
+    NettyDataBufferFactory bufferFactory;
+
+    FormatNameRequestDecoder decoder;
+    Jackson2JsonDecoder jackson;
+
+    @Setup
+    public void setup() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        decoder = new FormatNameRequestDecoder();
+        jackson = new Jackson2JsonDecoder(new ObjectMapper());
+    }
+
+    @Benchmark
+    public FormatNameRequest direct() {
+        return decoder.decodeToMono(body(), TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    @Benchmark
+    public Object jackson() {
+        return jackson.decodeToMono(body(), TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    // fresh buffers per operation, both decoders release what they consume
+    private Flux<DataBuffer> body() {
+        List<DataBuffer> buffers = new ArrayList<>(BODY.length / chunk + 1);
+        for (int i = 0; i < BODY.length; i += chunk) {
+            int length = Math.min(chunk, BODY.length - i);
+            buffers.add(bufferFactory.allocateBuffer(length).write(BODY, i, length));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
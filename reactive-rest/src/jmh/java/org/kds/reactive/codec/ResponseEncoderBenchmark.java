@@ -0,0 +1,72 @@
+package org.kds.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.kds.reactive.model.FormattedNameResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares FormattedNameResponseEncoder with Jackson2JsonEncoder writing a single
+ * response into pooled Netty buffers, as the server does for a /format call.
+ *
+ * gradlew jmh -PjmhInclude=ResponseEncoderBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseEncoderBenchmark {
+
+    static final ResolvableType TYPE = ResolvableType.forClass(FormattedNameResponse.class);
+
+    NettyDataBufferFactory bufferFactory;
+    FormattedNameResponse response;
+
+    FormattedNameResponseEncoder encoder;
+    Jackson2JsonEncoder jackson;
+
+    @Setup
+    public void setup() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        response = new FormattedNameResponse();
+        response.setFormattedName("Mr John J@ Doe");
+        encoder = new FormattedNameResponseEncoder();
+        jackson = new Jackson2JsonEncoder(new ObjectMapper());
+    }
+
+    @Benchmark
+    public int direct() {
+        return release(encoder.encodeValue(response, bufferFactory, TYPE, MediaType.APPLICATION_JSON, null));
+    }
+
+    @Benchmark
+    public int jackson() {
+        return release(jackson.encodeValue(response, bufferFactory, TYPE, MediaType.APPLICATION_JSON, null));
+    }
+
+    // the buffers go back to the pool as they would after being written to the socket
+    private static int release(DataBuffer buffer) {
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
@@ -0,0 +1,74 @@
+package org.kds.reactive.hardcore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the emission loop of ArrayPublisher with Flux.fromArray.
+ *
+ * gradlew jmh -PjmhInclude=ArrayPublisherBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayPublisherBenchmark {
+
+    @Param({"1", "1000", "1000000"})
+    int size;
+
+    @Param({"1", "32", "unbounded"})
+    String request;
+
+    // subscriptions made to the same cold publisher per operation
+    @Param({"1", "4"})
+    int subscribers;
+
+    long batch;
+
+    Integer[] array;
+
+    ArrayPublisher<Integer> arrayPublisher;
+
+    Flux<Integer> flux;
+
+    @Setup
+    public void setup() {
+        batch = PerfSubscriber.parseRequest(request);
+        array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        arrayPublisher = new ArrayPublisher<>(array);
+        flux = Flux.fromArray(array);
+    }
+
+    @Benchmark
+    public void arrayPublisher(Blackhole bh) {
+        for (int i = 0; i < subscribers; i++) {
+            arrayPublisher.subscribe(new PerfSubscriber(bh, batch));
+        }
+    }
+
+    @Benchmark
+    public void fluxFromArray(Blackhole bh) {
+        for (int i = 0; i < subscribers; i++) {
+            flux.subscribe(new PerfSubscriber(bh, batch));
+        }
+    }
+}
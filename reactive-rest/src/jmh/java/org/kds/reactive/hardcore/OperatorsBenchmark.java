@@ -0,0 +1,133 @@
+package org.kds.reactive.hardcore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hardcore operators with their Reactor equivalents over the same array.
+ *
+ * gradlew jmh -PjmhInclude=OperatorsBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperatorsBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Param({"1", "32", "unbounded"})
+    String request;
+
+    long batch;
+
+    ExecutorService executor;
+    Scheduler scheduler;
+
+    Publisher<Integer> map;
+    Flux<Integer> fluxMap;
+
+    Publisher<Integer> filter;
+    Flux<Integer> fluxFilter;
+
+    Publisher<Integer> flatMap;
+    Flux<Integer> fluxFlatMap;
+
+    Publisher<Integer> publishOn;
+    Flux<Integer> fluxPublishOn;
+
+    @Setup
+    public void setup() {
+        batch = PerfSubscriber.parseRequest(request);
+        Integer[] array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = Schedulers.fromExecutorService(executor);
+
+        map = new MapPublisher<>(new MapPublisher<>(new ArrayPublisher<>(array), i -> i + 1), i -> i * 2);
+        fluxMap = Flux.fromArray(array).map(i -> i + 1).map(i -> i * 2);
+
+        filter = new FilterPublisher<>(new ArrayPublisher<>(array), i -> (i & 15) == 0);
+        fluxFilter = Flux.fromArray(array).filter(i -> (i & 15) == 0);
+
+        flatMap = new FlatMapPublisher<Integer, Integer>(new ArrayPublisher<>(array), JustPublisher::new, 32);
+        fluxFlatMap = Flux.fromArray(array).flatMap(Flux::just, 32);
+
+        publishOn = new PublishOnPublisher<>(new ArrayPublisher<>(array), executor);
+        fluxPublishOn = Flux.fromArray(array).publishOn(scheduler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        map.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void fluxMap(Blackhole bh) {
+        fluxMap.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void filter(Blackhole bh) {
+        filter.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void fluxFilter(Blackhole bh) {
+        fluxFilter.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void flatMap(Blackhole bh) {
+        flatMap.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void fluxFlatMap(Blackhole bh) {
+        fluxFlatMap.subscribe(new PerfSubscriber(bh, batch));
+    }
+
+    @Benchmark
+    public void publishOn(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh, batch);
+        publishOn.subscribe(subscriber);
+        subscriber.await();
+    }
+
+    @Benchmark
+    public void fluxPublishOn(Blackhole bh) throws InterruptedException {
+        PerfSubscriber subscriber = new PerfSubscriber(bh, batch);
+        fluxPublishOn.subscribe(subscriber);
+        subscriber.await();
+    }
+}
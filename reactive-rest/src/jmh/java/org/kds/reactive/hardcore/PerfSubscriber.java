@@ -0,0 +1,71 @@
+package org.kds.reactive.hardcore;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Subscriber which hands every signal to the JMH black hole so that the emission
+ * loop under measurement can not be optimised away.
+ *
+ * It requests in batches of the given size, Long.MAX_VALUE meaning unbounded, and
+ * counts down a latch on termination for the benchmarks crossing threads.
+ */
+public class PerfSubscriber implements Subscriber<Object> {
+
+    final Blackhole bh;
+    final long batch;
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    Subscription subscription;
+    long received;
+
+    public PerfSubscriber(Blackhole bh) {
+        this(bh, Long.MAX_VALUE);
+    }
+
+    public PerfSubscriber(Blackhole bh, long batch) {
+        this.bh = bh;
+        this.batch = batch;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.subscription = s;
+        s.request(batch);
+    }
+
+    @Override
+    public void onNext(Object item) {
+        bh.consume(item);
+        if (batch != Long.MAX_VALUE && ++received == batch) {
+            received = 0;
+            subscription.request(batch);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        bh.consume(t);
+        latch.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        bh.consume(true);
+        latch.countDown();
+    }
+
+    public void await() throws InterruptedException {
+        latch.await();
+    }
+
+    /**
+     * Parses the request size benchmark parameter, "unbounded" stands for Long.MAX_VALUE.
+     */
+    public static long parseRequest(String request) {
+        return "unbounded".equals(request) ? Long.MAX_VALUE : Long.parseLong(request);
+    }
+}
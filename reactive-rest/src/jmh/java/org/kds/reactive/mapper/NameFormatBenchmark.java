@@ -0,0 +1,54 @@
+package org.kds.reactive.mapper;
+
+import org.kds.reactive.model.FormatNameRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precompiled NameTemplate with the String.format call it replaced,
+ * run with the gc profiler to see the allocation per formatted name.
+ *
+ * gradlew jmh -PjmhInclude=NameFormatBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NameFormatBenchmark {
+
+    FormatNameRequest request;
+    NameTemplate template;
+
+    @Setup
+    public void setup() {
+        request = new FormatNameRequest();
+        request.setTitle("Mr");
+        request.setFirstName("John");
+        request.setMiddleName("J@");
+        request.setLastName("Doe");
+        template = FormattedNameResponseMapper.template(FormattedNameResponseMapper.DEFAULT_TEMPLATE);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("%s %s %s %s", request.getTitle(), request.getFirstName(),
+                request.getMiddleName(), request.getLastName());
+    }
+
+    @Benchmark
+    public String nameTemplate() {
+        return template.format(request);
+    }
+}
@@ -0,0 +1,80 @@
+package org.kds.reactive.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares TimingWheelScheduler with Schedulers.parallel() scheduling and cancelling a
+ * delayed task while a million other timers are pending, which is what delayElements does
+ * for every element of every subscriber. The contended variant schedules from 4 threads.
+ *
+ * gradlew jmh -PjmhInclude=TimerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TimerBenchmark {
+
+    static final int PENDING = 1_000_000;
+
+    static final Runnable NOOP = () -> {
+    };
+
+    @Param({"parallel", "wheel"})
+    String timer;
+
+    Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        scheduler = "wheel".equals(timer)
+                ? new TimingWheelScheduler("bench", Duration.ofMillis(1), threads)
+                : Schedulers.newParallel("bench", threads);
+        // an hour away, they stay pending for the whole run
+        for (int i = 0; i < PENDING; i++) {
+            scheduler.schedule(NOOP, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public Disposable scheduleAndCancel() {
+        Disposable task = scheduler.schedule(NOOP, 1, TimeUnit.SECONDS);
+        task.dispose();
+        return task;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Disposable scheduleAndCancelContended() {
+        Disposable task = scheduler.schedule(NOOP, 1, TimeUnit.SECONDS);
+        task.dispose();
+        return task;
+    }
+}
@@ -1,9 +1,13 @@
 package org.kds.reactive;
 
+import org.kds.reactive.admission.AdmissionProperties;
+import org.kds.reactive.stream.StreamOverflowProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({StreamOverflowProperties.class, AdmissionProperties.class})
 public class ReactiveRestApplication {
 
 	public static void main(String[] args) {
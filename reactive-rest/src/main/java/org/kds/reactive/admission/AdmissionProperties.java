@@ -0,0 +1,133 @@
+package org.kds.reactive.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission limits of the routes, for example
+ *
+ * <pre>
+ * admission:
+ *   client-header: X-Real-IP
+ *   routes:
+ *     format:
+ *       pattern: /format/**
+ *       rate: 2000
+ *       burst: 200
+ *       client-rate: 100
+ *       client-burst: 20
+ *       max-in-flight: 512
+ * </pre>
+ *
+ * A request is checked against the first route whose pattern matches its path, a request
+ * matching none is not limited. A rate of 0 turns off its bucket, a max-in-flight of 0 turns
+ * off shedding.
+ *
+ * Clients are told apart by their remote address. A client-header can name a header to use
+ * instead, which is only safe behind a proxy that sets it and drops the one sent by the
+ * client, anyone else can pick a new identity on every request and escape its client rate.
+ */
+@ConfigurationProperties("admission")
+public class AdmissionProperties {
+
+    // header identifying the client, set by a trusted proxy, the remote address when not set or missing
+    private String clientHeader;
+    // client buckets kept per route, clients beyond share one bucket
+    private int maxClients = 10_000;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Route {
+
+        private String pattern;
+        private double rate;
+        private int burst = 1;
+        private double clientRate;
+        private int clientBurst = 1;
+        private int maxInFlight;
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * Requests per second admitted on the route from all clients together.
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        /**
+         * Requests per second admitted on the route from a single client.
+         */
+        public double getClientRate() {
+            return clientRate;
+        }
+
+        public void setClientRate(double clientRate) {
+            this.clientRate = clientRate;
+        }
+
+        public int getClientBurst() {
+            return clientBurst;
+        }
+
+        public void setClientBurst(int clientBurst) {
+            this.clientBurst = clientBurst;
+        }
+
+        /**
+         * Requests of the route being processed at once, the ones beyond are shed with a 503
+         * rather than queued so the admitted ones keep their latency.
+         */
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+    }
+}
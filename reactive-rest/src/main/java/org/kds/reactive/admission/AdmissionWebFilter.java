@@ -0,0 +1,141 @@
+package org.kds.reactive.admission;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects the requests over the limits of AdmissionProperties before any work is done for
+ * them.
+ *
+ * A request over its client's or its route's rate gets a 429 with the seconds until a token
+ * is available in Retry-After. With max-in-flight set a route sheds the requests arriving
+ * while that many are being processed with a 503, queueing them would only add their wait
+ * to the latency of every request behind them.
+ *
+ * Runs first in the chain, right after RouteMetricsWebFilter so the rejections are timed
+ * too. Clients are keyed by the InetAddress the server already resolved, checking a request
+ * allocates nothing but for a new client.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AdmissionWebFilter implements WebFilter {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private final String clientHeader;
+    private final RouteLimiter[] limiters;
+
+    public AdmissionWebFilter(AdmissionProperties properties) {
+        this.clientHeader = properties.getClientHeader();
+        List<RouteLimiter> compiled = new ArrayList<>();
+        PathPatternParser parser = new PathPatternParser();
+        for (Map.Entry<String, AdmissionProperties.Route> route : properties.getRoutes().entrySet()) {
+            String pattern = route.getValue().getPattern();
+            if (pattern == null) {
+                throw new IllegalArgumentException("admission.routes." + route.getKey() + ".pattern is missing");
+            }
+            compiled.add(new RouteLimiter(route.getKey(), parser.parse(pattern), route.getValue(), properties.getMaxClients()));
+        }
+        this.limiters = compiled.toArray(new RouteLimiter[0]);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RouteLimiter limiter = limiter(exchange.getRequest());
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+
+        if (!limiter.enter()) {
+            limiter.shed.increment();
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+        }
+        long now = System.nanoTime();
+        long wait = limiter.tryAcquire(limiter.limitsClients() ? client(exchange.getRequest()) : null, now);
+        if (wait > 0) {
+            limiter.exit();
+            limiter.rejected.increment();
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, wait);
+        }
+
+        if (limiter.maxInFlight > 0) {
+            return chain.filter(exchange).doFinally(signal -> limiter.exit());
+        }
+        return chain.filter(exchange);
+    }
+
+    /**
+     * Requests of the named route rejected with a 429.
+     */
+    public long rejected(String route) {
+        RouteLimiter limiter = named(route);
+        return limiter != null ? limiter.rejected.sum() : 0L;
+    }
+
+    /**
+     * Requests of the named route shed with a 503.
+     */
+    public long shed(String route) {
+        RouteLimiter limiter = named(route);
+        return limiter != null ? limiter.shed.sum() : 0L;
+    }
+
+    private RouteLimiter named(String route) {
+        for (RouteLimiter limiter : limiters) {
+            if (limiter.name.equals(route)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    private RouteLimiter limiter(ServerHttpRequest request) {
+        if (limiters.length == 0) {
+            return null;
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (RouteLimiter limiter : limiters) {
+            if (limiter.pattern.matches(path)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    private Object client(ServerHttpRequest request) {
+        String client = clientHeader != null ? request.getHeaders().getFirst(clientHeader) : null;
+        if (client != null) {
+            return client;
+        }
+        InetSocketAddress address = request.getRemoteAddress();
+        InetAddress inetAddress = address != null ? address.getAddress() : null;
+        return inetAddress != null ? inetAddress : UNKNOWN_CLIENT;
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        // whole seconds, rounded up so a client retrying right then finds a token
+        long seconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,128 @@
+package org.kds.reactive.admission;
+
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The buckets and the in flight count of one configured route.
+ */
+final class RouteLimiter {
+
+    static final long CLEANUP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    final String name;
+    final PathPattern pattern;
+    final TokenBucket bucket;
+    final int maxInFlight;
+
+    final double clientRate;
+    final int clientBurst;
+    final int maxClients;
+    // keyed by the client header value or the client's InetAddress
+    final ConcurrentMap<Object, TokenBucket> clients;
+    // shared by the clients once maxClients are tracked
+    final TokenBucket overflow;
+
+    final LongAdder rejected = new LongAdder();
+    final LongAdder shed = new LongAdder();
+
+    volatile int inFlight;
+    static final AtomicIntegerFieldUpdater<RouteLimiter> IN_FLIGHT =
+            AtomicIntegerFieldUpdater.newUpdater(RouteLimiter.class, "inFlight");
+
+    volatile long lastCleanup;
+    static final AtomicLongFieldUpdater<RouteLimiter> LAST_CLEANUP =
+            AtomicLongFieldUpdater.newUpdater(RouteLimiter.class, "lastCleanup");
+
+    RouteLimiter(String name, PathPattern pattern, AdmissionProperties.Route route, int maxClients) {
+        this.name = name;
+        this.pattern = pattern;
+        this.bucket = route.getRate() > 0 ? new TokenBucket(route.getRate(), route.getBurst()) : null;
+        this.maxInFlight = route.getMaxInFlight();
+        this.clientRate = route.getClientRate();
+        this.clientBurst = route.getClientBurst();
+        this.maxClients = maxClients;
+        this.clients = clientRate > 0 ? new ConcurrentHashMap<>() : null;
+        this.overflow = clientRate > 0 ? new TokenBucket(clientRate, clientBurst) : null;
+        this.lastCleanup = System.nanoTime();
+    }
+
+    boolean limitsClients() {
+        return clients != null;
+    }
+
+    /**
+     * @return 0 when admitted, otherwise the nanos until the client or the route has a token
+     */
+    long tryAcquire(Object client, long now) {
+        TokenBucket clientBucket = null;
+        if (clients != null) {
+            clientBucket = client(client, now);
+            long wait = clientBucket.tryAcquire(now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        long wait = bucket != null ? bucket.tryAcquire(now) : 0L;
+        // the client is checked first so its excess does not eat the route's tokens, but a
+        // request the route rejects is not charged to the client
+        if (wait > 0 && clientBucket != null) {
+            clientBucket.release();
+        }
+        return wait;
+    }
+
+    private TokenBucket client(Object client, long now) {
+        TokenBucket clientBucket = clients.get(client);
+        if (clientBucket != null) {
+            return clientBucket;
+        }
+        if (clients.size() >= maxClients) {
+            removeFullBuckets(now);
+            if (clients.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return clients.computeIfAbsent(client, key -> new TokenBucket(clientRate, clientBurst));
+    }
+
+    // a full bucket is the same as a new one, at most once a second so a flood of new
+    // clients does not scan the map on every request
+    private void removeFullBuckets(long now) {
+        long last = lastCleanup;
+        if (now - last < CLEANUP_INTERVAL || !LAST_CLEANUP.compareAndSet(this, last, now)) {
+            return;
+        }
+        clients.values().removeIf(clientBucket -> clientBucket.isFull(now));
+    }
+
+    /**
+     * @return false when the route is at its in flight limit
+     */
+    boolean enter() {
+        if (maxInFlight <= 0) {
+            return true;
+        }
+        for (;;) {
+            int current = inFlight;
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (IN_FLIGHT.compareAndSet(this, current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void exit() {
+        if (maxInFlight > 0) {
+            IN_FLIGHT.decrementAndGet(this);
+        }
+    }
+}
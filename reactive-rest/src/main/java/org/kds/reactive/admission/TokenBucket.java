@@ -0,0 +1,69 @@
+package org.kds.reactive.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Token bucket kept as a single long updated with CAS, no lock and no allocation per check.
+ *
+ * Rather than a token count and a refill time the bucket stores the theoretical arrival time
+ * of the next request (the generic cell rate algorithm): every admitted request pushes it one
+ * emission interval further, a request is admitted as long as that does not put it more than
+ * burst intervals ahead of now. This is the same as a bucket of burst tokens refilled at the
+ * given rate, with nothing to refill.
+ */
+public final class TokenBucket {
+
+    private final long interval;
+    private final long capacity;
+
+    // the time at which the bucket is full again
+    private volatile long full = Long.MIN_VALUE;
+    private static final AtomicLongFieldUpdater<TokenBucket> FULL =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "full");
+
+    /**
+     * @param ratePerSecond tokens added per second
+     * @param burst         tokens the bucket holds, the requests admitted at once
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("rate and burst must be positive but were " + ratePerSecond + " and " + burst);
+        }
+        this.interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.capacity = interval * burst;
+    }
+
+    /**
+     * @param now System.nanoTime()
+     * @return 0 when a token was taken, otherwise the nanos until one is available
+     */
+    public long tryAcquire(long now) {
+        for (;;) {
+            long current = full;
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                return wait;
+            }
+            if (FULL.compareAndSet(this, current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire, for a request another limit turned away.
+     */
+    public void release() {
+        FULL.addAndGet(this, -interval);
+    }
+
+    /**
+     * A full bucket holds no state, it can be dropped and created again.
+     */
+    public boolean isFull(long now) {
+        long current = full;
+        return current == Long.MIN_VALUE || current - now <= 0;
+    }
+}
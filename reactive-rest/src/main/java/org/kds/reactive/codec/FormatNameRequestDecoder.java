@@ -0,0 +1,96 @@
+package org.kds.reactive.codec;
+
+import org.kds.reactive.config.CodecConfig;
+import org.kds.reactive.model.FormatNameRequest;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads FormatNameRequest without Jackson's reflective bean deserializer.
+ *
+ * Each incoming buffer is parsed as soon as it arrives and released right after, the body
+ * is never aggregated. For a Flux every request is emitted as soon as its closing brace
+ * is read, which is what the newline delimited /format/batch endpoint relies on.
+ */
+public class FormatNameRequestDecoder extends AbstractDecoder<FormatNameRequest> {
+
+    private int maxInMemorySize = 256 * 1024;
+
+    public FormatNameRequestDecoder() {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), CodecConfig.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Limit on the bytes of a single request object, -1 for unlimited, 256K by default
+     * as for the Jackson decoder.
+     */
+    public void setMaxInMemorySize(int byteCount) {
+        this.maxInMemorySize = byteCount;
+    }
+
+    public int getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return FormatNameRequest.class == elementType.toClass() && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<FormatNameRequest> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                          @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return Flux.defer(() -> {
+            FormatNameRequestParser parser = new FormatNameRequestParser(maxInMemorySize);
+            return Flux.from(inputStream)
+                    .concatMapIterable(buffer -> feed(parser, buffer))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Mono.<FormatNameRequest>fromRunnable(parser::end));
+        });
+    }
+
+    @Override
+    public Mono<FormatNameRequest> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                                @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return decode(inputStream, elementType, mimeType, hints)
+                .collectList()
+                .flatMap(requests -> {
+                    if (requests.size() > 1) {
+                        return Mono.error(new DecodingException("Expected a single FormatNameRequest but got " + requests.size()));
+                    }
+                    return Mono.justOrEmpty(requests.isEmpty() ? null : requests.get(0));
+                });
+    }
+
+    @Override
+    public FormatNameRequest decode(DataBuffer buffer, ResolvableType targetType,
+                                    @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        FormatNameRequestParser parser = new FormatNameRequestParser(maxInMemorySize);
+        List<FormatNameRequest> requests = feed(parser, buffer);
+        parser.end();
+        if (requests.size() != 1) {
+            throw new DecodingException("Expected a single FormatNameRequest but got " + requests.size());
+        }
+        return requests.get(0);
+    }
+
+    private static List<FormatNameRequest> feed(FormatNameRequestParser parser, DataBuffer buffer) {
+        try {
+            return parser.feed(buffer);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
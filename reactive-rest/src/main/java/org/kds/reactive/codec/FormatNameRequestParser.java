@@ -0,0 +1,506 @@
+package org.kds.reactive.codec;
+
+import org.kds.reactive.model.FormatNameRequest;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Push parser turning a stream of bytes into FormatNameRequest instances.
+ *
+ * The bytes are consumed one at a time as the buffers arrive, so a request may be split
+ * at any point, even in the middle of a multi byte character, and the parser simply
+ * resumes where the previous buffer ended. Top level objects may follow each other
+ * separated by whitespace (newline delimited JSON) or be elements of a top level array.
+ *
+ * Mirrors what Jackson does with Boot's defaults: unknown properties are skipped,
+ * scalars are accepted as text for the string properties and null stays null.
+ *
+ * Not thread safe, one instance per decoded body.
+ */
+final class FormatNameRequestParser {
+
+    // before a top level value
+    private static final int ROOT = 0;
+    // inside a top level array, before an element or the closing bracket
+    private static final int ROOT_ARRAY = 1;
+    // after an element of the top level array
+    private static final int ROOT_ARRAY_NEXT = 2;
+    // after '{', before the first field name or '}'
+    private static final int OBJECT_START = 3;
+    // after ',', before a field name
+    private static final int FIELD_START = 4;
+    private static final int FIELD_NAME = 5;
+    private static final int COLON = 6;
+    // before a field value
+    private static final int VALUE = 7;
+    private static final int STRING_VALUE = 8;
+    // number, true, false or null
+    private static final int LITERAL_VALUE = 9;
+    // object or array value of an unknown field
+    private static final int SKIP_VALUE = 10;
+    // after a field value, before ',' or '}'
+    private static final int OBJECT_NEXT = 11;
+
+    private static final char[][] FIELDS = {
+            "title".toCharArray(),
+            "firstName".toCharArray(),
+            "middleName".toCharArray(),
+            "lastName".toCharArray(),
+            "template".toCharArray()
+    };
+
+    private static final int UNKNOWN = -1;
+
+    private final int maxInMemorySize;
+
+    private int state = ROOT;
+    private boolean inArray;
+
+    private FormatNameRequest request;
+    // bytes of the current top level value, bounded by maxInMemorySize
+    private int valueBytes;
+    private int field;
+
+    // text of the current string or literal
+    private char[] chars = new char[64];
+    private int length;
+
+    // 0 outside of an escape, 1 after the backslash, 2 to 5 while reading the \\u hex digits
+    private int escape;
+    private int utf8Remaining;
+    private int codePoint;
+
+    // SKIP_VALUE bookkeeping
+    private int skipDepth;
+    private boolean skipInString;
+    private boolean skipEscaped;
+
+    FormatNameRequestParser(int maxInMemorySize) {
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    /**
+     * Consumes the readable bytes of the buffer, returns the requests completed by them.
+     */
+    List<FormatNameRequest> feed(DataBuffer buffer) {
+        List<FormatNameRequest> completed = null;
+        for (int i = buffer.readPosition(), end = buffer.writePosition(); i < end; i++) {
+            if (next(buffer.getByte(i))) {
+                if (completed == null) {
+                    completed = new ArrayList<>(2);
+                }
+                completed.add(request);
+                request = null;
+            }
+        }
+        return completed == null ? Collections.emptyList() : completed;
+    }
+
+    /**
+     * Signals the end of the input, fails if it stopped in the middle of a value.
+     */
+    void end() {
+        if (state != ROOT) {
+            throw new DecodingException("Incomplete JSON, the input ended inside a value");
+        }
+    }
+
+    private boolean next(byte b) {
+        if (request != null && ++valueBytes > maxInMemorySize && maxInMemorySize != -1) {
+            throw new DataBufferLimitException("Exceeded limit on max bytes per JSON object: " + maxInMemorySize);
+        }
+
+        switch (state) {
+            case ROOT:
+                if (b == '{') {
+                    startObject();
+                } else if (b == '[' && !inArray) {
+                    inArray = true;
+                    state = ROOT_ARRAY;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case ROOT_ARRAY:
+                if (b == '{') {
+                    startObject();
+                } else if (b == ']') {
+                    inArray = false;
+                    state = ROOT;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case ROOT_ARRAY_NEXT:
+                if (b == ',') {
+                    state = ROOT_ARRAY;
+                } else if (b == ']') {
+                    inArray = false;
+                    state = ROOT;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case OBJECT_START:
+                if (b == '}') {
+                    return endObject();
+                }
+                // fall through
+            case FIELD_START:
+                if (b == '"') {
+                    length = 0;
+                    state = FIELD_NAME;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case FIELD_NAME:
+                if (string(b)) {
+                    field = fieldIndex();
+                    state = COLON;
+                }
+                return false;
+
+            case COLON:
+                if (b == ':') {
+                    state = VALUE;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case VALUE:
+                if (b == '"') {
+                    length = 0;
+                    state = STRING_VALUE;
+                } else if (b == '{' || b == '[') {
+                    if (field != UNKNOWN) {
+                        throw new DecodingException("Expected a string for " + new String(FIELDS[field])
+                                + " but found '" + (char) b + "'");
+                    }
+                    skipDepth = 1;
+                    skipInString = false;
+                    skipEscaped = false;
+                    state = SKIP_VALUE;
+                } else if (isLiteral(b)) {
+                    length = 0;
+                    append((char) b);
+                    state = LITERAL_VALUE;
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            case STRING_VALUE:
+                if (string(b)) {
+                    set(new String(chars, 0, length));
+                    state = OBJECT_NEXT;
+                }
+                return false;
+
+            case LITERAL_VALUE:
+                if (isLiteral(b)) {
+                    append((char) b);
+                    return false;
+                }
+                set(literal());
+                state = OBJECT_NEXT;
+                // the delimiter belongs to the enclosing object, do not count it twice
+                valueBytes--;
+                return next(b);
+
+            case SKIP_VALUE:
+                skip(b);
+                return false;
+
+            case OBJECT_NEXT:
+                if (b == ',') {
+                    state = FIELD_START;
+                } else if (b == '}') {
+                    return endObject();
+                } else if (!isWhitespace(b)) {
+                    throw unexpected(b);
+                }
+                return false;
+
+            default:
+                throw new IllegalStateException("Unknown state " + state);
+        }
+    }
+
+    private void startObject() {
+        request = new FormatNameRequest();
+        valueBytes = 1;
+        state = OBJECT_START;
+    }
+
+    private boolean endObject() {
+        state = inArray ? ROOT_ARRAY_NEXT : ROOT;
+        return true;
+    }
+
+    /**
+     * Feeds a byte of a quoted string into chars, returns true on the closing quote.
+     */
+    private boolean string(byte b) {
+        if (utf8Remaining > 0) {
+            if ((b & 0xC0) != 0x80) {
+                throw new DecodingException("Invalid UTF-8 continuation byte 0x" + Integer.toHexString(b & 0xFF));
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            if (--utf8Remaining == 0) {
+                appendCodePoint(codePoint);
+            }
+            return false;
+        }
+
+        if (escape == 1) {
+            switch (b) {
+                case '"':
+                case '\\':
+                case '/':
+                    append((char) b);
+                    break;
+                case 'b':
+                    append('\b');
+                    break;
+                case 'f':
+                    append('\f');
+                    break;
+                case 'n':
+                    append('\n');
+                    break;
+                case 'r':
+                    append('\r');
+                    break;
+                case 't':
+                    append('\t');
+                    break;
+                case 'u':
+                    codePoint = 0;
+                    escape = 2;
+                    return false;
+                default:
+                    throw new DecodingException("Invalid escape '\\" + (char) b + "'");
+            }
+            escape = 0;
+            return false;
+        }
+
+        if (escape > 1) {
+            codePoint = (codePoint << 4) | hex(b);
+            if (++escape == 6) {
+                // surrogate pairs arrive as two escapes and end up next to each other
+                append((char) codePoint);
+                escape = 0;
+            }
+            return false;
+        }
+
+        if (b == '"') {
+            return true;
+        }
+        if (b == '\\') {
+            escape = 1;
+            return false;
+        }
+        if (b >= 0) {
+            if (b < 0x20) {
+                throw new DecodingException("Unescaped control character 0x" + Integer.toHexString(b) + " in a string");
+            }
+            append((char) b);
+            return false;
+        }
+
+        int lead = b & 0xFF;
+        if ((lead & 0xE0) == 0xC0) {
+            codePoint = lead & 0x1F;
+            utf8Remaining = 1;
+        } else if ((lead & 0xF0) == 0xE0) {
+            codePoint = lead & 0x0F;
+            utf8Remaining = 2;
+        } else if ((lead & 0xF8) == 0xF0) {
+            codePoint = lead & 0x07;
+            utf8Remaining = 3;
+        } else {
+            throw new DecodingException("Invalid UTF-8 start byte 0x" + Integer.toHexString(lead));
+        }
+        return false;
+    }
+
+    private void skip(byte b) {
+        if (skipInString) {
+            if (skipEscaped) {
+                skipEscaped = false;
+            } else if (b == '\\') {
+                skipEscaped = true;
+            } else if (b == '"') {
+                skipInString = false;
+            }
+        } else if (b == '"') {
+            skipInString = true;
+        } else if (b == '{' || b == '[') {
+            skipDepth++;
+        } else if ((b == '}' || b == ']') && --skipDepth == 0) {
+            state = OBJECT_NEXT;
+        }
+    }
+
+    private int fieldIndex() {
+        for (int i = 0; i < FIELDS.length; i++) {
+            char[] name = FIELDS[i];
+            if (name.length == length && regionEquals(name)) {
+                return i;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private boolean regionEquals(char[] name) {
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String literal() {
+        if (is("null")) {
+            return null;
+        }
+        if (!is("true") && !is("false") && !isNumber()) {
+            throw new DecodingException("Invalid literal '" + new String(chars, 0, length) + "' in JSON");
+        }
+        return new String(chars, 0, length);
+    }
+
+    private boolean is(String literal) {
+        if (length != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+    private boolean isNumber() {
+        int i = 0;
+        if (i < length && chars[i] == '-') {
+            i++;
+        }
+        if (i < length && chars[i] == '0') {
+            i++;
+        } else {
+            int start = i;
+            i = digits(i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && chars[i] == '.') {
+            int start = ++i;
+            i = digits(i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            if (i < length && (chars[i] == '+' || chars[i] == '-')) {
+                i++;
+            }
+            int start = i;
+            i = digits(i);
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private int digits(int i) {
+        while (i < length && chars[i] >= '0' && chars[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private void set(String value) {
+        switch (field) {
+            case 0:
+                request.setTitle(value);
+                break;
+            case 1:
+                request.setFirstName(value);
+                break;
+            case 2:
+                request.setMiddleName(value);
+                break;
+            case 3:
+                request.setLastName(value);
+                break;
+            case 4:
+                request.setTemplate(value);
+                break;
+            default:
+                // unknown property, ignored
+        }
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            char[] grown = new char[length << 1];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+        chars[length++] = c;
+    }
+
+    private void appendCodePoint(int cp) {
+        if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            append(Character.highSurrogate(cp));
+            append(Character.lowSurrogate(cp));
+        } else {
+            append((char) cp);
+        }
+    }
+
+    private static int hex(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        throw new DecodingException("Invalid hex digit '" + (char) b + "' in a \\u escape");
+    }
+
+    private static boolean isLiteral(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'E';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static DecodingException unexpected(byte b) {
+        return new DecodingException("Unexpected character '" + (char) b + "' in JSON");
+    }
+}
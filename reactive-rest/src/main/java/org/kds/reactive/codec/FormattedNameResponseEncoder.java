@@ -0,0 +1,132 @@
+package org.kds.reactive.codec;
+
+import org.kds.reactive.config.CodecConfig;
+import org.kds.reactive.model.Error;
+import org.kds.reactive.model.FormattedNameResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes FormattedNameResponse and Error as JSON straight into a buffer taken from the
+ * response's DataBufferFactory, a pooled Netty allocator when running on Reactor Netty.
+ *
+ * It only claims these two model types, everything else still goes through Jackson.
+ * The output follows Jackson2JsonEncoder: a Mono is a single document, a Flux is a JSON
+ * array, unless the media type is a streaming one where each element is its own line.
+ */
+public class FormattedNameResponseEncoder extends AbstractEncoder<Object> implements HttpMessageEncoder<Object> {
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES =
+            Arrays.asList(MediaType.APPLICATION_STREAM_JSON, CodecConfig.APPLICATION_NDJSON);
+
+    public FormattedNameResponseEncoder() {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), CodecConfig.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        Class<?> clazz = elementType.toClass();
+        return (FormattedNameResponse.class.isAssignableFrom(clazz) || Error.class.isAssignableFrom(clazz))
+                && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_MEDIA_TYPES;
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, @Nullable MimeType mimeType,
+                                   @Nullable Map<String, Object> hints) {
+
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+
+        if (isStreaming(mimeType)) {
+            return Flux.from(inputStream)
+                    .map(value -> encode(value, bufferFactory, true));
+        }
+
+        return Flux.from(inputStream)
+                .collectList()
+                .map(list -> encodeList(list, bufferFactory))
+                .flux();
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, @Nullable MimeType mimeType,
+                                  @Nullable Map<String, Object> hints) {
+        return encode(value, bufferFactory, false);
+    }
+
+    private DataBuffer encode(Object value, DataBufferFactory bufferFactory, boolean newline) {
+        int size = sizeOf(value) + (newline ? 1 : 0);
+        DataBuffer buffer = bufferFactory.allocateBuffer(size);
+        write(value, buffer);
+        if (newline) {
+            buffer.write((byte) '\n');
+        }
+        return buffer;
+    }
+
+    private DataBuffer encodeList(List<?> values, DataBufferFactory bufferFactory) {
+        int size = 2 + Math.max(values.size() - 1, 0);
+        for (Object value : values) {
+            size += sizeOf(value);
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(size);
+        buffer.write((byte) '[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i != 0) {
+                buffer.write((byte) ',');
+            }
+            write(values.get(i), buffer);
+        }
+        buffer.write((byte) ']');
+        return buffer;
+    }
+
+    private static int sizeOf(Object value) {
+        return value instanceof FormattedNameResponse
+                ? JsonWriter.sizeOf((FormattedNameResponse) value)
+                : JsonWriter.sizeOf((Error) value);
+    }
+
+    private static void write(Object value, DataBuffer buffer) {
+        if (value instanceof FormattedNameResponse) {
+            JsonWriter.write((FormattedNameResponse) value, buffer);
+        } else {
+            JsonWriter.write((Error) value, buffer);
+        }
+    }
+
+    private static boolean isStreaming(@Nullable MimeType mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        for (MediaType streaming : STREAMING_MEDIA_TYPES) {
+            if (streaming.isCompatibleWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
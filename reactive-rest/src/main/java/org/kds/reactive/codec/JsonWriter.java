@@ -0,0 +1,220 @@
+package org.kds.reactive.codec;
+
+import org.kds.reactive.model.Error;
+import org.kds.reactive.model.FormattedNameResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Hand written JSON for the response model, producing the same bytes as Jackson does.
+ *
+ * Every write has a matching sizeOf so the caller can allocate a buffer of the exact
+ * size up front and the characters go straight into it as UTF-8, without an
+ * intermediate String or byte[].
+ */
+final class JsonWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] FORMATTED_NAME = "\"formattedName\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERRORS = "\"errors\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CODE = "{\"code\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MESSAGE = ",\"message\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private JsonWriter() {
+    }
+
+    // ------------------------------------------------------------------ FormattedNameResponse
+
+    /**
+     * null properties are left out, as @JsonInclude(NON_NULL) does on the model.
+     */
+    static int sizeOf(FormattedNameResponse response) {
+        int size = 2;
+        boolean first = true;
+        if (response.getFormattedName() != null) {
+            size += FORMATTED_NAME.length + sizeOf(response.getFormattedName());
+            first = false;
+        }
+        if (response.getErrors() != null) {
+            size += (first ? 0 : 1) + ERRORS.length + sizeOf(response.getErrors());
+        }
+        return size;
+    }
+
+    static void write(FormattedNameResponse response, DataBuffer buffer) {
+        buffer.write((byte) '{');
+        boolean first = true;
+        if (response.getFormattedName() != null) {
+            buffer.write(FORMATTED_NAME);
+            write(response.getFormattedName(), buffer);
+            first = false;
+        }
+        if (response.getErrors() != null) {
+            if (!first) {
+                buffer.write((byte) ',');
+            }
+            buffer.write(ERRORS);
+            write(response.getErrors(), buffer);
+        }
+        buffer.write((byte) '}');
+    }
+
+    // ------------------------------------------------------------------ Error
+
+    static int sizeOf(List<Error> errors) {
+        int size = 2 + Math.max(errors.size() - 1, 0);
+        for (int i = 0; i < errors.size(); i++) {
+            size += sizeOf(errors.get(i));
+        }
+        return size;
+    }
+
+    static void write(List<Error> errors, DataBuffer buffer) {
+        buffer.write((byte) '[');
+        for (int i = 0; i < errors.size(); i++) {
+            if (i != 0) {
+                buffer.write((byte) ',');
+            }
+            write(errors.get(i), buffer);
+        }
+        buffer.write((byte) ']');
+    }
+
+    /**
+     * Error has no inclusion rule, so its null properties are written out as null.
+     */
+    static int sizeOf(Error error) {
+        if (error == null) {
+            return NULL.length;
+        }
+        return CODE.length + sizeOf(error.getCode()) + MESSAGE.length + sizeOf(error.getMessage()) + 1;
+    }
+
+    static void write(Error error, DataBuffer buffer) {
+        if (error == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write(CODE);
+        write(error.getCode(), buffer);
+        buffer.write(MESSAGE);
+        write(error.getMessage(), buffer);
+        buffer.write((byte) '}');
+    }
+
+    // ------------------------------------------------------------------ strings
+
+    /**
+     * Quoted and escaped size of the value in UTF-8 bytes.
+     */
+    static int sizeOf(String value) {
+        if (value == null) {
+            return NULL.length;
+        }
+        int size = 2;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size += escapeLength(c);
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, replaced the way String.getBytes does
+                size += 1;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    static void write(String value, DataBuffer buffer) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAscii(c, buffer);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (cp >> 18)));
+                buffer.write((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write((byte) '?');
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static int escapeLength(char c) {
+        if (c == '"' || c == '\\') {
+            return 2;
+        }
+        if (c < 0x20) {
+            switch (c) {
+                case '\b':
+                case '\t':
+                case '\n':
+                case '\f':
+                case '\r':
+                    return 2;
+                default:
+                    return 6;
+            }
+        }
+        return 1;
+    }
+
+    private static void writeAscii(char c, DataBuffer buffer) {
+        if (c == '"' || c == '\\') {
+            buffer.write((byte) '\\');
+            buffer.write((byte) c);
+        } else if (c >= 0x20) {
+            buffer.write((byte) c);
+        } else {
+            buffer.write((byte) '\\');
+            switch (c) {
+                case '\b':
+                    buffer.write((byte) 'b');
+                    break;
+                case '\t':
+                    buffer.write((byte) 't');
+                    break;
+                case '\n':
+                    buffer.write((byte) 'n');
+                    break;
+                case '\f':
+                    buffer.write((byte) 'f');
+                    break;
+                case '\r':
+                    buffer.write((byte) 'r');
+                    break;
+                default:
+                    buffer.write((byte) 'u');
+                    buffer.write((byte) '0');
+                    buffer.write((byte) '0');
+                    buffer.write(HEX[c >> 4]);
+                    buffer.write(HEX[c & 0xF]);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.kds.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.kds.reactive.codec.FormatNameRequestDecoder;
+import org.kds.reactive.codec.FormattedNameResponseEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.codec.CodecProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import java.util.Arrays;
+
+/**
+ * Teaches the Jackson codecs newline delimited JSON, which this version of Spring
+ * does not support out of the box. Each line is decoded as soon as it arrives and
+ * every element of a Flux is written as a line of its own.
+ *
+ * The /format requests and responses skip Jackson altogether, see FormatNameRequestDecoder
+ * and FormattedNameResponseEncoder. Custom codecs do not get spring.codec.max-in-memory-size
+ * from Spring, so it is passed on to the decoder here.
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private static final MediaType APPLICATION_ANY_JSON = new MediaType("application", "*+json");
+
+    private final ObjectMapper objectMapper;
+    private final CodecProperties codecProperties;
+
+    public CodecConfig(ObjectMapper objectMapper, ObjectProvider<CodecProperties> codecProperties) {
+        this.objectMapper = objectMapper;
+        this.codecProperties = codecProperties.getIfAvailable();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.defaultCodecs().jackson2JsonDecoder(
+                new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON, APPLICATION_ANY_JSON, APPLICATION_NDJSON));
+
+        Jackson2JsonEncoder encoder =
+                new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON, APPLICATION_ANY_JSON, APPLICATION_NDJSON);
+        encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+        configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+
+        // typed readers and writers are consulted before the catch all Jackson ones
+        FormatNameRequestDecoder decoder = new FormatNameRequestDecoder();
+        DataSize maxInMemorySize = codecProperties != null ? codecProperties.getMaxInMemorySize() : null;
+        if (maxInMemorySize != null) {
+            decoder.setMaxInMemorySize(Math.toIntExact(maxInMemorySize.toBytes()));
+        }
+        configurer.customCodecs().register(decoder);
+        configurer.customCodecs().register(new FormattedNameResponseEncoder());
+    }
+}
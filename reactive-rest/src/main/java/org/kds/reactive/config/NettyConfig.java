@@ -0,0 +1,31 @@
+package org.kds.reactive.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import org.kds.reactive.stream.StreamOverflowProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caps the bytes Netty queues per connection. Once a slow client lets the queue grow past
+ * the high water mark the channel turns unwritable, Reactor Netty stops requesting and the
+ * streaming endpoints apply their OverflowPolicy instead of buffering on the heap.
+ */
+@Configuration
+public class NettyConfig implements WebServerFactoryCustomizer<NettyReactiveWebServerFactory> {
+
+    private final StreamOverflowProperties properties;
+
+    public NettyConfig(StreamOverflowProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void customize(NettyReactiveWebServerFactory factory) {
+        WriteBufferWaterMark waterMark = new WriteBufferWaterMark(
+                properties.getWriteBufferLowWaterMark(), properties.getWriteBufferHighWaterMark());
+        factory.addServerCustomizers(httpServer -> httpServer.tcpConfiguration(
+                tcpServer -> tcpServer.option(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark)));
+    }
+}
@@ -1,53 +1,135 @@
 package org.kds.reactive.controller;
 
+import org.kds.reactive.config.CodecConfig;
+import org.kds.reactive.logging.SampledLog;
 import org.kds.reactive.mapper.FormattedNameResponseMapper;
+import org.kds.reactive.model.Error;
 import org.kds.reactive.model.FormatNameRequest;
 import org.kds.reactive.model.FormattedNameResponse;
+import org.kds.reactive.scheduler.TimingWheelScheduler;
+import org.kds.reactive.stream.SharedTicker;
+import org.kds.reactive.stream.SlowConsumerGuard;
+import org.kds.reactive.stream.StreamOverflowProperties;
+import org.kds.reactive.validator.FormatNameRequestValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
-import javax.validation.Valid;
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
 import java.time.Duration;
+import java.util.List;
 
 @RestController
 public class FluxAndMonoController {
 
+    private static final String LOG_CATEGORY = FluxAndMonoController.class.getName();
+
+    private final FormatNameRequestValidator requestValidator;
+    private final SharedTicker ticker = new SharedTicker(Duration.ofSeconds(1), Schedulers.parallel());
+
+    private final SlowConsumerGuard fluxStreamGuard;
+    private final SlowConsumerGuard finiteStreamGuard;
+
+    // runs the delayElements timers, stream.timer=wheel for the timing wheel, parallel by default
+    private final Scheduler delayTimer;
+
+    public FluxAndMonoController(Validator validator, StreamOverflowProperties overflowProperties,
+                                 @Value("${stream.timer:parallel}") String timer) {
+        this.requestValidator = new FormatNameRequestValidator(validator);
+        this.fluxStreamGuard = overflowProperties.guard("fluxstream");
+        this.finiteStreamGuard = overflowProperties.guard("finite-stream");
+        this.delayTimer = delayTimer(timer);
+    }
+
+    private static Scheduler delayTimer(String timer) {
+        switch (timer) {
+            case "parallel":
+                return Schedulers.parallel();
+            case "wheel":
+                return new TimingWheelScheduler("delay-timer", Duration.ofMillis(10),
+                        Runtime.getRuntime().availableProcessors());
+            default:
+                throw new IllegalArgumentException("Unknown stream.timer " + timer + ", expected parallel or wheel");
+        }
+    }
+
+    @PreDestroy
+    public void disposeDelayTimer() {
+        // the shared parallel scheduler is not ours to dispose
+        if (delayTimer instanceof TimingWheelScheduler) {
+            delayTimer.dispose();
+        }
+    }
+
+    /**
+     * Validated by the precompiled FormatNameRequestValidator instead of @Valid, an invalid
+     * request is answered without building a WebExchangeBindException.
+     */
     @PostMapping("/format")
-    public Mono<ResponseEntity<FormattedNameResponse>> format(@Valid @RequestBody Mono<FormatNameRequest> request) {
-        return request
-                .map(res -> ResponseEntity.status(HttpStatus.OK).body(FormattedNameResponseMapper.fromFormatNameRequest(res)))
-                .onErrorResume(WebExchangeBindException.class,
-                        ex -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                        .body(FormattedNameResponseMapper.fromWebExchangeBindException(ex))));
+    public Mono<ResponseEntity<FormattedNameResponse>> format(@RequestBody Mono<FormatNameRequest> request) {
+        return request.map(req -> {
+            List<Error> errors = requestValidator.validate(req);
+            if (!errors.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(FormattedNameResponseMapper.fromErrors(errors));
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(FormattedNameResponseMapper.fromFormatNameRequest(req));
+        });
+    }
+
+    /**
+     * Streaming variant of /format, every line of the request is validated and formatted as it
+     * arrives and answered by a line of its own, an invalid item does not end the stream.
+     */
+    @PostMapping(value = "/format/batch",
+            consumes = CodecConfig.APPLICATION_NDJSON_VALUE, produces = CodecConfig.APPLICATION_NDJSON_VALUE)
+    public Flux<FormattedNameResponse> formatBatch(@RequestBody Flux<FormatNameRequest> requests) {
+        return requests.map(this::validateAndFormat);
+    }
+
+    private FormattedNameResponse validateAndFormat(FormatNameRequest request) {
+        List<Error> errors = requestValidator.validate(request);
+        if (!errors.isEmpty()) {
+            return FormattedNameResponseMapper.fromErrors(errors);
+        }
+        return FormattedNameResponseMapper.fromFormatNameRequest(request);
     }
 
     @GetMapping("/flux")
     public Flux<Integer> flux() {
         return Flux.just(1, 2, 3, 4)
-                .delayElements(Duration.ofSeconds(1))
-                .log();
+                .delayElements(Duration.ofSeconds(1), delayTimer)
+                .transform(SampledLog.signals(LOG_CATEGORY + ".flux"));
     }
 
+    /**
+     * Every connection follows the same ticker, joining at its current tick.
+     */
     @GetMapping(value = "/fluxstream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
     public Flux<Long> fluxStream() {
-        return Flux.interval(Duration.ofSeconds(1))
-                .log();
+        return ticker.ticks()
+                .transform(fluxStreamGuard::apply)
+                .transform(SampledLog.signals(LOG_CATEGORY + ".fluxstream"));
     }
 
     @GetMapping(value = "/flux/finite/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
     public Flux<Integer> fluxFiniteStream() {
         return Flux.just(1, 2, 3, 4)
-                .delayElements(Duration.ofSeconds(1))
-                .log();
+                .delayElements(Duration.ofSeconds(1), delayTimer)
+                .transform(finiteStreamGuard::apply)
+                .transform(SampledLog.signals(LOG_CATEGORY + ".flux.finite.stream"));
     }
 
     @GetMapping(value = "/flux/exception")
@@ -55,7 +137,19 @@ public class FluxAndMonoController {
         return Flux.just(1, 2, 3, 4)
                 // add error with exception error.
                 .concatWith(Mono.error(new RuntimeException("Runtime Error Occurred")))
-                .log();
+                .transform(SampledLog.signals(LOG_CATEGORY + ".flux.exception"));
+    }
+
+    /**
+     * Changes the share of signals logged by the streaming endpoints, 0 turns it off.
+     */
+    @PutMapping("/internal/logging/signals")
+    public ResponseEntity<Integer> signalSampleRate(@RequestParam int sampleRate) {
+        if (sampleRate < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        SampledLog.setSampleRate(sampleRate);
+        return ResponseEntity.ok(sampleRate);
     }
 
     @ExceptionHandler(RuntimeException.class)
@@ -0,0 +1,80 @@
+package org.kds.reactive.controller;
+
+import org.kds.reactive.logging.SampledLog;
+import org.kds.reactive.metrics.PrometheusFormat;
+import org.kds.reactive.metrics.RouteMetrics;
+import org.kds.reactive.metrics.RouteMetricsWebFilter;
+import org.kds.reactive.metrics.RouteSnapshot;
+import org.kds.reactive.stream.SlowConsumerGuard;
+import org.kds.reactive.stream.StreamOverflowProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route latencies and counters recorded by RouteMetricsWebFilter and the counters of the
+ * streaming endpoints' SlowConsumerGuards and the signal log, as JSON or, for a client
+ * preferring text/plain like Prometheus does, in the Prometheus text format.
+ */
+@RestController
+public class MetricsController {
+
+    private final RouteMetrics metrics;
+    private final StreamOverflowProperties streams;
+
+    public MetricsController(RouteMetricsWebFilter metricsFilter, StreamOverflowProperties streams) {
+        this.metrics = metricsFilter.getMetrics();
+        this.streams = streams;
+    }
+
+    @GetMapping(value = "/internal/metrics", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> metrics(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        List<RouteSnapshot> routes = metrics.snapshot();
+        Collection<SlowConsumerGuard> guards = streams.guards();
+        if (prefersText(accept)) {
+            StringBuilder text = new StringBuilder(1024);
+            PrometheusFormat.routes(text, metrics.inFlight(), routes);
+            PrometheusFormat.streams(text, guards);
+            PrometheusFormat.value(text, "signal_log_dropped_events_total", "counter",
+                    "Sampled signals lost because the log appender could not keep up", SampledLog.droppedEvents());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(PrometheusFormat.CONTENT_TYPE))
+                    .body(text.toString());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("inFlight", metrics.inFlight());
+        body.put("routes", routes);
+        body.put("streams", guards);
+        body.put("signalLogDropped", SampledLog.droppedEvents());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // the first of the accepted types, by quality, that we can produce decides
+    private static boolean prefersText(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType type : accepted) {
+            if (type.isWildcardType()) {
+                return false;
+            }
+            if (type.isCompatibleWith(MediaType.TEXT_PLAIN)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
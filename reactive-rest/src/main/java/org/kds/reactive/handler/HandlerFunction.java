@@ -1,5 +1,6 @@
 package org.kds.reactive.handler;
 
+import org.kds.reactive.logging.SampledLog;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -23,6 +24,7 @@ public class HandlerFunction {
     public Mono<ServerResponse> flux(ServerRequest serverRequest) {
         return ServerResponse.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(Flux.just(1, 2, 3, 4).log(), Integer.class);
+                .body(Flux.just(1, 2, 3, 4)
+                        .transform(SampledLog.signals(HandlerFunction.class.getName() + ".flux")), Integer.class);
     }
 }
@@ -0,0 +1,254 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * An ArrayPublisher followed by one or more map stages collapsed into a single publisher,
+ * the composed mapper is applied right inside the array emission loop.
+ *
+ * Instances are created at assembly time by MapPublisher, see MapPublisher#fuse.
+ */
+public class ArrayMapPublisher<T, R> implements Publisher<R> {
+
+    final T[] array;
+    final Function<? super T, ? extends R> mapper;
+
+    public ArrayMapPublisher(T[] array, Function<? super T, ? extends R> mapper) {
+        this.array = array;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Appends another map stage to this publisher without adding another subscriber to the chain.
+     */
+    public <V> ArrayMapPublisher<T, V> map(Function<? super R, ? extends V> next) {
+        Function<? super T, ? extends R> current = mapper;
+        return new ArrayMapPublisher<>(array, t -> next.apply(current.apply(t)));
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> subscriber) {
+        subscriber.onSubscribe(new ArrayMapSubscription<>(array, mapper, subscriber));
+    }
+
+    static final class ArrayMapSubscription<T, R> implements Subscription {
+
+        final T[] array;
+        final Function<? super T, ? extends R> mapper;
+        final Subscriber<? super R> actual;
+        final ConditionalSubscriber<? super R> conditional;
+
+        // only touched by the thread that currently owns the emission loop
+        int index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<ArrayMapSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ArrayMapSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        ArrayMapSubscription(T[] array, Function<? super T, ? extends R> mapper, Subscriber<? super R> actual) {
+            this.array = array;
+            this.mapper = mapper;
+            this.actual = actual;
+            this.conditional = actual instanceof ConditionalSubscriber
+                    ? (ConditionalSubscriber<? super R>) actual : null;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            if (n == Long.MAX_VALUE) {
+                if (conditional != null) {
+                    fastPathConditional();
+                } else {
+                    fastPath();
+                }
+            } else {
+                if (conditional != null) {
+                    slowPathConditional(n);
+                } else {
+                    slowPath(n);
+                }
+            }
+        }
+
+        void fastPath() {
+            final T[] a = array;
+            final Subscriber<? super R> s = actual;
+
+            for (int i = index; i < a.length; i++) {
+                if (cancelled) {
+                    return;
+                }
+
+                R value = apply(a[i], i);
+                if (value == null) {
+                    return;
+                }
+                s.onNext(value);
+            }
+
+            if (cancelled) {
+                return;
+            }
+            s.onComplete();
+        }
+
+        void slowPath(long n) {
+            final T[] a = array;
+            final int length = a.length;
+            final Subscriber<? super R> s = actual;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    R value = apply(a[i], i);
+                    if (value == null) {
+                        return;
+                    }
+                    s.onNext(value);
+
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        void fastPathConditional() {
+            final T[] a = array;
+            final ConditionalSubscriber<? super R> s = conditional;
+
+            for (int i = index; i < a.length; i++) {
+                if (cancelled) {
+                    return;
+                }
+
+                R value = apply(a[i], i);
+                if (value == null) {
+                    return;
+                }
+                s.tryOnNext(value);
+            }
+
+            if (cancelled) {
+                return;
+            }
+            s.onComplete();
+        }
+
+        void slowPathConditional(long n) {
+            final T[] a = array;
+            final int length = a.length;
+            final ConditionalSubscriber<? super R> s = conditional;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    R value = apply(a[i], i);
+                    if (value == null) {
+                        return;
+                    }
+                    if (s.tryOnNext(value)) {
+                        sent++;
+                    }
+
+                    i++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        // maps the element, signals the error and returns null if that is not possible
+        R apply(T element, int i) {
+            if (element == null) {
+                actual.onError(new NullPointerException("The " + i + "th array element was null"));
+                return null;
+            }
+
+            R value;
+            try {
+                value = mapper.apply(element);
+            } catch (Throwable ex) {
+                cancelled = true;
+                actual.onError(ex);
+                return null;
+            }
+
+            if (value == null) {
+                cancelled = true;
+                actual.onError(new NullPointerException("The mapper returned a null value"));
+            }
+            return value;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
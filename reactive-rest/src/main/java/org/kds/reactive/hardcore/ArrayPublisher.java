@@ -4,13 +4,17 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+/**
+ * Emits the elements of an array honouring the back pressure requested by the subscriber.
+ *
+ * The requested counter doubles as the work in progress marker, the thread which moves it
+ * away from zero owns the emission loop, so the index can be a plain field.
+ */
 public class ArrayPublisher<T> implements Publisher<T> {
 
-    private final T[] array;
+    final T[] array;
 
     public ArrayPublisher(T[] array) {
         this.array = array;
@@ -18,65 +22,216 @@ public class ArrayPublisher<T> implements Publisher<T> {
 
     @Override
     public void subscribe(Subscriber<? super T> subscriber) {
-        subscriber.onSubscribe(new Subscription() {
-            AtomicInteger index = new AtomicInteger();
-            // how many elements, the publisher has to publish
-            AtomicLong requested = new AtomicLong();
-            AtomicBoolean cancelled = new AtomicBoolean();
-            @Override
-            public void request(long n) {
-                if (n <= 0 && !cancelled.get()) {
-                    cancel();
-                    subscriber.onError(new IllegalArgumentException("n can not be negative"));
+        subscriber.onSubscribe(new ArraySubscription<>(array, subscriber));
+    }
+
+    static final class ArraySubscription<T> implements Subscription {
+
+        final T[] array;
+        final Subscriber<? super T> actual;
+        // same as actual when the subscriber can reject elements without consuming demand
+        final ConditionalSubscriber<? super T> conditional;
+
+        // only touched by the thread that currently owns the emission loop
+        int index;
+
+        // how many elements, the publisher has to publish
+        volatile long requested;
+        static final AtomicLongFieldUpdater<ArraySubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ArraySubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        @SuppressWarnings("unchecked")
+        ArraySubscription(T[] array, Subscriber<? super T> actual) {
+            this.array = array;
+            this.actual = actual;
+            this.conditional = actual instanceof ConditionalSubscriber
+                    ? (ConditionalSubscriber<? super T>) actual : null;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            // work in progress checker, if there was an outstanding demand some other
+            // call is still inside the emission loop and will pick up the new demand.
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            if (n == Long.MAX_VALUE) {
+                if (conditional != null) {
+                    fastPathConditional();
+                } else {
+                    fastPath();
+                }
+            } else {
+                if (conditional != null) {
+                    slowPathConditional(n);
+                } else {
+                    slowPath(n);
+                }
+            }
+        }
+
+        // unbounded demand, no need to account for the emitted elements at all
+        void fastPath() {
+            final T[] a = array;
+            final Subscriber<? super T> s = actual;
+
+            for (int i = index; i < a.length; i++) {
+                if (cancelled) {
                     return;
                 }
 
-                // work in progress checker
-                // initialRequested always will have the current value of the requested
-                long initialRequested = requested.getAndAdd(n);
-                if (initialRequested > 0) {
-                    // this means publisher is still sending data to someone who
-                    // has requested data earlier, hence work in progress.
+                T element = a[i];
+
+                if (element == null) {
+                    s.onError(new NullPointerException("The " + i + "th array element was null"));
                     return;
                 }
+                s.onNext(element);
+            }
+
+            if (cancelled) {
+                return;
+            }
+            s.onComplete();
+        }
+
+        void slowPath(long n) {
+            final T[] a = array;
+            final int length = a.length;
+            final Subscriber<? super T> s = actual;
 
-                // how many elements publisher have already sent to
-                // subscriber.
-                int sent = 0;
-                while (true) {
-                    for (; sent < requested.get() && index.get() < array.length; sent++, index.incrementAndGet()) {
-                        if (cancelled.get()) {
-                            return;
-                        }
-
-                        T element = array[index.get()];
-
-                        if (element == null) {
-                            subscriber.onError(new NullPointerException());
-                            return;
-                        }
-                        subscriber.onNext(array[index.get()]);
+            int i = index;
+            // how many elements publisher have already sent to
+            // subscriber in this round.
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
                     }
 
-                    if (index.get() == array.length) {
-                        subscriber.onComplete();
+                    T element = a[i];
+
+                    if (element == null) {
+                        s.onError(new NullPointerException("The " + i + "th array element was null"));
                         return;
                     }
+                    s.onNext(element);
 
-                    // decrement the requested elements by number of sent elements.
-                    long currentStateOfRequested = requested.addAndGet(-sent);
-                    if (currentStateOfRequested == 0) {
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                // re-read the demand, more may have arrived while emitting
+                n = requested;
+                if (n == sent) {
+                    // publish the index before giving up the ownership of the loop
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
                         // no more work to do
                         return;
                     }
                     sent = 0;
-                }// repeat
+                }
+            }// repeat
+        }
+
+        void fastPathConditional() {
+            final T[] a = array;
+            final ConditionalSubscriber<? super T> s = conditional;
+
+            for (int i = index; i < a.length; i++) {
+                if (cancelled) {
+                    return;
+                }
+
+                T element = a[i];
+
+                if (element == null) {
+                    s.onError(new NullPointerException("The " + i + "th array element was null"));
+                    return;
+                }
+                s.tryOnNext(element);
             }
 
-            @Override
-            public void cancel() {
-                cancelled.set(true);
+            if (cancelled) {
+                return;
             }
-        });
+            s.onComplete();
+        }
+
+        // same as slowPath, except that only the accepted elements count against the demand
+        void slowPathConditional(long n) {
+            final T[] a = array;
+            final int length = a.length;
+            final ConditionalSubscriber<? super T> s = conditional;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    T element = a[i];
+
+                    if (element == null) {
+                        s.onError(new NullPointerException("The " + i + "th array element was null"));
+                        return;
+                    }
+                    if (s.tryOnNext(element)) {
+                        sent++;
+                    }
+
+                    i++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
     }
 }
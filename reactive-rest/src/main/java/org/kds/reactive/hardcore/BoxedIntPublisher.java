@@ -0,0 +1,51 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Bridges a IntPublisher to subscribers expecting boxed values.
+ */
+public class BoxedIntPublisher implements Publisher<Integer> {
+
+    final IntPublisher parent;
+
+    public BoxedIntPublisher(IntPublisher parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Integer> actual) {
+        parent.subscribe(new BoxingSubscriber(actual));
+    }
+
+    static final class BoxingSubscriber implements IntSubscriber {
+
+        final Subscriber<? super Integer> actualSubscriber;
+
+        BoxingSubscriber(Subscriber<? super Integer> actualSubscriber) {
+            this.actualSubscriber = actualSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actualSubscriber.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(int value) {
+            actualSubscriber.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actualSubscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actualSubscriber.onComplete();
+        }
+    }
+}
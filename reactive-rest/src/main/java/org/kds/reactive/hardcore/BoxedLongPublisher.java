@@ -0,0 +1,51 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Bridges a LongPublisher to subscribers expecting boxed values.
+ */
+public class BoxedLongPublisher implements Publisher<Long> {
+
+    final LongPublisher parent;
+
+    public BoxedLongPublisher(LongPublisher parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Long> actual) {
+        parent.subscribe(new BoxingSubscriber(actual));
+    }
+
+    static final class BoxingSubscriber implements LongSubscriber {
+
+        final Subscriber<? super Long> actualSubscriber;
+
+        BoxingSubscriber(Subscriber<? super Long> actualSubscriber) {
+            this.actualSubscriber = actualSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            actualSubscriber.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(long value) {
+            actualSubscriber.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            actualSubscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            actualSubscriber.onComplete();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Collects the upstream elements into lists of the given size, the last one may be shorter.
+ *
+ * A request for n lists becomes a request for n * size elements upstream. On top of an
+ * ArrayPublisher no element is copied at all, the lists are read-only views of slices of
+ * its array, which every subscription shares.
+ */
+public class BufferPublisher<T> implements Publisher<List<T>> {
+
+    final Publisher<T> parent;
+    final int size;
+
+    public BufferPublisher(Publisher<T> parent, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive, was " + size);
+        }
+        this.parent = parent;
+        this.size = size;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super List<T>> actual) {
+        if (parent instanceof ArrayPublisher) {
+            actual.onSubscribe(new ArraySliceSubscription<>(((ArrayPublisher<T>) parent).array, size, actual));
+            return;
+        }
+        parent.subscribe(new BufferSubscriber<>(actual, size));
+    }
+
+    static final class BufferSubscriber<T> implements Subscriber<T>, Subscription {
+
+        final Subscriber<? super List<T>> actual;
+        final int size;
+
+        Subscription upstream;
+        List<T> buffer;
+        boolean done;
+
+        BufferSubscriber(Subscriber<? super List<T>> actual, int size) {
+            this.actual = actual;
+            this.size = size;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            List<T> b = buffer;
+            if (b == null) {
+                b = new ArrayList<>(size);
+                buffer = b;
+            }
+            b.add(t);
+            if (b.size() == size) {
+                buffer = null;
+                actual.onNext(b);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            buffer = null;
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            List<T> b = buffer;
+            buffer = null;
+            // the upstream ended before filling it, so this list was requested already
+            if (b != null) {
+                actual.onNext(b);
+            }
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                upstream.request(n);
+                return;
+            }
+            upstream.request(SubscriptionHelper.multiplyCap(n, size));
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+
+    static final class ArraySliceSubscription<T> implements Subscription {
+
+        final T[] array;
+        final List<T> view;
+        final int size;
+        final Subscriber<? super List<T>> actual;
+
+        // only touched by the thread that currently owns the emission loop
+        int index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<ArraySliceSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ArraySliceSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        ArraySliceSubscription(T[] array, int size, Subscriber<? super List<T>> actual) {
+            this.array = array;
+            // the sub lists of an unmodifiable list are unmodifiable too, no wrapper per slice
+            this.view = Collections.unmodifiableList(Arrays.asList(array));
+            this.size = size;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            final int length = array.length;
+            final Subscriber<? super List<T>> s = actual;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    int end = (int) Math.min((long) i + size, length);
+                    if (!checkNoNulls(i, end)) {
+                        return;
+                    }
+                    s.onNext(view.subList(i, end));
+
+                    i = end;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        // the same guarantee as ArrayPublisher, a null element terminates the sequence
+        boolean checkNoNulls(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (array[i] == null) {
+                    actual.onError(new NullPointerException("The " + i + "th array element was null"));
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
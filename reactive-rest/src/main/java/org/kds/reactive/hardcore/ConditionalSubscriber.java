@@ -0,0 +1,18 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * A Subscriber which can tell its upstream whether an element was actually consumed.
+ *
+ * Sources in this package check for it on subscribe and only count the elements for
+ * which tryOnNext returned true against the requested amount, so a rejected element
+ * does not consume demand and no request(1) has to travel upstream to replace it.
+ */
+public interface ConditionalSubscriber<T> extends Subscriber<T> {
+
+    /**
+     * @return true if the element was passed on to the downstream, false if it was dropped
+     */
+    boolean tryOnNext(T t);
+}
@@ -0,0 +1,124 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.function.Predicate;
+
+/**
+ * Passes on only the elements matching the predicate.
+ *
+ * Both subscribers are ConditionalSubscribers, so a source from this package that understands
+ * tryOnNext simply does not count a dropped element against the demand. Only a plain upstream
+ * has to be asked for a replacement with request(1).
+ */
+public class FilterPublisher<T> implements Publisher<T> {
+
+    final Publisher<T> parent;
+    final Predicate<? super T> predicate;
+
+    public FilterPublisher(Publisher<T> parent, Predicate<? super T> predicate) {
+        this.parent = parent;
+        this.predicate = predicate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void subscribe(Subscriber<? super T> actual) {
+        if (actual instanceof ConditionalSubscriber) {
+            parent.subscribe(new FilterConditionalSubscriber<>(predicate, (ConditionalSubscriber<? super T>) actual));
+            return;
+        }
+        parent.subscribe(new FilterSubscriber<>(predicate, actual));
+    }
+
+    static class FilterSubscriber<T> implements ConditionalSubscriber<T> {
+
+        final Predicate<? super T> predicate;
+        final Subscriber<? super T> actualSubscriber;
+
+        Subscription upstream;
+        boolean done;
+
+        FilterSubscriber(Predicate<? super T> predicate, Subscriber<? super T> actualSubscriber) {
+            this.predicate = predicate;
+            this.actualSubscriber = actualSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actualSubscriber.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            // called by upstreams which do not know about tryOnNext, the dropped
+            // element has consumed one unit of demand, so ask for a replacement
+            if (!tryOnNext(t) && !done) {
+                upstream.request(1);
+            }
+        }
+
+        @Override
+        public boolean tryOnNext(T t) {
+            if (done) {
+                return false;
+            }
+            if (!test(t)) {
+                return false;
+            }
+            actualSubscriber.onNext(t);
+            return true;
+        }
+
+        // a failing predicate cancels the upstream and terminates the sequence
+        boolean test(T t) {
+            try {
+                return predicate.test(t);
+            } catch (Throwable ex) {
+                upstream.cancel();
+                onError(ex);
+                return false;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onComplete();
+        }
+    }
+
+    static class FilterConditionalSubscriber<T> extends FilterSubscriber<T> {
+
+        final ConditionalSubscriber<? super T> conditionalSubscriber;
+
+        FilterConditionalSubscriber(Predicate<? super T> predicate,
+                                    ConditionalSubscriber<? super T> conditionalSubscriber) {
+            super(predicate, conditionalSubscriber);
+            this.conditionalSubscriber = conditionalSubscriber;
+        }
+
+        @Override
+        public boolean tryOnNext(T t) {
+            if (done) {
+                return false;
+            }
+            return test(t) && conditionalSubscriber.tryOnNext(t);
+        }
+    }
+}
@@ -0,0 +1,499 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Maps every upstream element to a Publisher and merges the output of up to maxConcurrency
+ * of them at a time.
+ *
+ * There are no locks, every inner has its own prefetch sized SpscArrayQueue and whichever
+ * thread wins the work in progress counter drains all of them to the downstream. When that
+ * thread is the emitting one and nothing is queued the value goes out directly. Callable
+ * inners, such as JustPublisher, are not subscribed to at all, their value takes the same
+ * fast path or waits in a shared scalar queue. That queue is linked and only created once a
+ * value has to wait, an unbounded maxConcurrency does not preallocate anything.
+ */
+public class FlatMapPublisher<T, R> implements Publisher<R> {
+
+    public static final int DEFAULT_PREFETCH = 32;
+
+    final Publisher<T> parent;
+    final Function<? super T, ? extends Publisher<? extends R>> mapper;
+    final int maxConcurrency;
+    final int prefetch;
+
+    public FlatMapPublisher(Publisher<T> parent, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                            int maxConcurrency) {
+        this(parent, mapper, maxConcurrency, DEFAULT_PREFETCH);
+    }
+
+    public FlatMapPublisher(Publisher<T> parent, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                            int maxConcurrency, int prefetch) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, was " + maxConcurrency);
+        }
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be positive, was " + prefetch);
+        }
+        this.parent = parent;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> actual) {
+        parent.subscribe(new FlatMapMain<>(actual, mapper, maxConcurrency, prefetch));
+    }
+
+    static final class FlatMapMain<T, R> implements Subscriber<T>, Subscription {
+
+        static final FlatMapInner[] EMPTY = new FlatMapInner[0];
+        static final FlatMapInner[] TERMINATED = new FlatMapInner[0];
+
+        final Subscriber<? super R> actual;
+        final Function<? super T, ? extends Publisher<? extends R>> mapper;
+        final int maxConcurrency;
+        final int prefetch;
+        // values of Callable inners which could not be emitted right away, created by the
+        // upstream thread on first use, never holds more than maxConcurrency values
+        volatile MpscLinkedQueue<R> scalarQueue;
+
+        Subscription upstream;
+
+        volatile boolean done;
+        volatile boolean cancelled;
+
+        volatile Throwable error;
+        static final AtomicReferenceFieldUpdater<FlatMapMain, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(FlatMapMain.class, Throwable.class, "error");
+
+        // the active inners, copy on write so the drain loop can iterate without locking
+        volatile FlatMapInner<R>[] subscribers;
+        static final AtomicReferenceFieldUpdater<FlatMapMain, FlatMapInner[]> SUBSCRIBERS =
+                AtomicReferenceFieldUpdater.newUpdater(FlatMapMain.class, FlatMapInner[].class, "subscribers");
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<FlatMapMain> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(FlatMapMain.class, "requested");
+
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<FlatMapMain> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(FlatMapMain.class, "wip");
+
+        @SuppressWarnings("unchecked")
+        FlatMapMain(Subscriber<? super R> actual, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                    int maxConcurrency, int prefetch) {
+            this.actual = actual;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+            this.subscribers = EMPTY;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actual.onSubscribe(this);
+            s.request(maxConcurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : maxConcurrency);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+
+            Publisher<? extends R> p;
+            try {
+                p = mapper.apply(t);
+                if (p == null) {
+                    throw new NullPointerException("The mapper returned a null Publisher");
+                }
+            } catch (Throwable ex) {
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+
+            if (p instanceof Callable) {
+                R v;
+                try {
+                    v = ((Callable<R>) p).call();
+                } catch (Throwable ex) {
+                    upstream.cancel();
+                    onError(ex);
+                    return;
+                }
+                tryEmitScalar(v);
+                return;
+            }
+
+            FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch);
+            if (add(inner)) {
+                p.subscribe(inner);
+            }
+        }
+
+        void tryEmitScalar(R v) {
+            if (v == null) {
+                // empty inner, it has finished already
+                replenish(1);
+                return;
+            }
+            if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+                if (checkTerminated()) {
+                    return;
+                }
+                long r = requested;
+                MpscLinkedQueue<R> q = scalarQueue;
+                if (r != 0 && (q == null || q.isEmpty())) {
+                    actual.onNext(v);
+                    if (r != Long.MAX_VALUE) {
+                        REQUESTED.decrementAndGet(this);
+                    }
+                    replenish(1);
+                } else {
+                    scalarQueue().offer(v);
+                }
+                if (WIP.decrementAndGet(this) == 0) {
+                    return;
+                }
+                drainLoop();
+            } else {
+                scalarQueue().offer(v);
+                drain();
+            }
+        }
+
+        // only called from onNext, so there is a single creator
+        MpscLinkedQueue<R> scalarQueue() {
+            MpscLinkedQueue<R> q = scalarQueue;
+            if (q == null) {
+                q = new MpscLinkedQueue<>();
+                scalarQueue = q;
+            }
+            return q;
+        }
+
+        void tryEmit(FlatMapInner<R> inner, R v) {
+            if (wip == 0 && WIP.compareAndSet(this, 0, 1)) {
+                if (checkTerminated()) {
+                    return;
+                }
+                long r = requested;
+                if (r != 0 && inner.queue.isEmpty()) {
+                    actual.onNext(v);
+                    if (r != Long.MAX_VALUE) {
+                        REQUESTED.decrementAndGet(this);
+                    }
+                    inner.consumed(1);
+                } else if (!inner.queue.offer(v)) {
+                    inner.overflow();
+                }
+                if (WIP.decrementAndGet(this) == 0) {
+                    return;
+                }
+                drainLoop();
+            } else {
+                if (!inner.queue.offer(v)) {
+                    inner.overflow();
+                }
+                drain();
+            }
+        }
+
+        // one more upstream element may be mapped now
+        void replenish(long n) {
+            if (maxConcurrency != Integer.MAX_VALUE && !done) {
+                upstream.request(n);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            innerError(t);
+            done = true;
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        // the first error wins, the rest is cancelled by the drain loop
+        void innerError(Throwable t) {
+            if (ERROR.compareAndSet(this, null, t)) {
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+            SubscriptionHelper.addCap(REQUESTED, this, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (WIP.getAndIncrement(this) == 0) {
+                cancelAll();
+            }
+        }
+
+        void cancelAll() {
+            upstream.cancel();
+            MpscLinkedQueue<R> q = scalarQueue;
+            if (q != null) {
+                q.clear();
+            }
+            @SuppressWarnings("unchecked")
+            FlatMapInner<R>[] inners = SUBSCRIBERS.getAndSet(this, TERMINATED);
+            for (FlatMapInner<R> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean add(FlatMapInner<R> inner) {
+            for (;;) {
+                FlatMapInner<R>[] current = subscribers;
+                if (current == TERMINATED) {
+                    return false;
+                }
+                int n = current.length;
+                FlatMapInner<R>[] next = new FlatMapInner[n + 1];
+                System.arraycopy(current, 0, next, 0, n);
+                next[n] = inner;
+                if (SUBSCRIBERS.compareAndSet(this, current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void remove(FlatMapInner<R> inner) {
+            for (;;) {
+                FlatMapInner<R>[] current = subscribers;
+                int n = current.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (current[i] == inner) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                FlatMapInner<R>[] next;
+                if (n == 1) {
+                    next = EMPTY;
+                } else {
+                    next = new FlatMapInner[n - 1];
+                    System.arraycopy(current, 0, next, 0, j);
+                    System.arraycopy(current, j + 1, next, j, n - j - 1);
+                }
+                if (SUBSCRIBERS.compareAndSet(this, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) == 0) {
+                drainLoop();
+            }
+        }
+
+        void drainLoop() {
+            final Subscriber<? super R> s = actual;
+            int missed = 1;
+
+            for (;;) {
+                if (checkTerminated()) {
+                    return;
+                }
+
+                boolean d = done;
+                long r = requested;
+                long e = 0;
+                long finished = 0;
+
+                R v;
+                MpscLinkedQueue<R> q = scalarQueue;
+                if (q != null) {
+                    while (e != r && (v = q.poll()) != null) {
+                        s.onNext(v);
+                        e++;
+                        finished++;
+                    }
+                }
+
+                FlatMapInner<R>[] inners = subscribers;
+                for (FlatMapInner<R> inner : inners) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+
+                    boolean innerDone = inner.done;
+                    long emitted = 0;
+                    while (e != r && (v = inner.queue.poll()) != null) {
+                        s.onNext(v);
+                        e++;
+                        emitted++;
+                    }
+                    if (emitted != 0) {
+                        inner.consumed(emitted);
+                    }
+
+                    if (innerDone && inner.queue.isEmpty()) {
+                        remove(inner);
+                        finished++;
+                    }
+                }
+
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+                if (finished != 0) {
+                    replenish(finished);
+                }
+
+                if (d && subscribers.length == 0 && (q == null || q.isEmpty())) {
+                    if (checkTerminated()) {
+                        return;
+                    }
+                    s.onComplete();
+                    return;
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        boolean checkTerminated() {
+            if (cancelled) {
+                cancelAll();
+                return true;
+            }
+            Throwable ex = error;
+            if (ex != null) {
+                cancelAll();
+                actual.onError(ex);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class FlatMapInner<R> implements Subscriber<R> {
+
+        final FlatMapMain<?, R> parent;
+        final int prefetch;
+        final int limit;
+        final SpscArrayQueue<R> queue;
+
+        volatile Subscription upstream;
+        volatile boolean done;
+
+        // owned by the drain loop, elements taken since the last replenishment
+        long consumed;
+
+        FlatMapInner(FlatMapMain<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            // the main may have been cancelled before this inner got its subscription
+            if (parent.cancelled || parent.error != null) {
+                s.cancel();
+                return;
+            }
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(R r) {
+            if (done) {
+                return;
+            }
+            parent.tryEmit(this, r);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.drain();
+        }
+
+        void consumed(long n) {
+            long c = consumed + n;
+            if (c >= limit) {
+                consumed = 0;
+                if (!done) {
+                    upstream.request(c);
+                }
+            } else {
+                consumed = c;
+            }
+        }
+
+        void overflow() {
+            cancel();
+            onError(new IllegalStateException("Inner queue is full, the inner publisher did not respect back pressure"));
+        }
+
+        void cancel() {
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
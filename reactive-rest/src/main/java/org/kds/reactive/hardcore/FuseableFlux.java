@@ -0,0 +1,191 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Bridges ArrayPublisher, and map chains fused on top of it, into Reactor as a Fuseable source.
+ *
+ * Flux.from treats our publishers as opaque, which costs a StrictSubscriber and a queue at
+ * every publishOn or flatMap boundary. This Flux hands out a QueueSubscription supporting
+ * SYNC fusion instead, so downstream Reactor operators poll the array, with the mapper
+ * applied on the way, directly. Like FluxMapFuseable, a mapped array refuses fusion across
+ * a thread barrier, publishOn would otherwise run the mapper on its own worker.
+ */
+public final class FuseableFlux<T> extends Flux<T> implements Fuseable {
+
+    static final Function<Object, Object> IDENTITY = t -> t;
+
+    final Object[] array;
+    final Function<Object, ? extends T> mapper;
+
+    FuseableFlux(Object[] array, Function<Object, ? extends T> mapper) {
+        this.array = array;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Wraps the publisher, falling back to Flux.from for anything which can not be fused.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Flux<T> wrap(Publisher<T> publisher) {
+        if (publisher instanceof ArrayPublisher) {
+            return new FuseableFlux<>(((ArrayPublisher<T>) publisher).array, (Function<Object, T>) IDENTITY);
+        }
+        if (publisher instanceof MapPublisher && ((MapPublisher<?, T>) publisher).fused != null) {
+            return wrap(((MapPublisher<?, T>) publisher).fused);
+        }
+        if (publisher instanceof ArrayMapPublisher) {
+            ArrayMapPublisher<Object, T> fused = (ArrayMapPublisher<Object, T>) publisher;
+            return new FuseableFlux<>(fused.array, fused.mapper::apply);
+        }
+        return Flux.from(publisher);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        actual.onSubscribe(new ArrayQueueSubscription<>(array, mapper, actual));
+    }
+
+    static final class ArrayQueueSubscription<T> implements QueueSubscription<T> {
+
+        final Object[] array;
+        final Function<Object, ? extends T> mapper;
+        final CoreSubscriber<? super T> actual;
+
+        // in SYNC mode only touched by the polling thread, otherwise by the emission loop owner
+        int index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<ArrayQueueSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ArrayQueueSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        ArrayQueueSubscription(Object[] array, Function<Object, ? extends T> mapper,
+                               CoreSubscriber<? super T> actual) {
+            this.array = array;
+            this.mapper = mapper;
+            this.actual = actual;
+        }
+
+        @Override
+        public int requestFusion(int requestedMode) {
+            if ((requestedMode & SYNC) == 0) {
+                return NONE;
+            }
+            // the mapper has to run on the thread emitting, not on the one polling
+            if ((requestedMode & THREAD_BARRIER) != 0 && mapper != IDENTITY) {
+                return NONE;
+            }
+            // the array is all there is, so the downstream may drain it synchronously
+            return SYNC;
+        }
+
+        @Override
+        public T poll() {
+            int i = index;
+            if (i == array.length) {
+                return null;
+            }
+            index = i + 1;
+            return apply(array[i], i);
+        }
+
+        @Override
+        public int size() {
+            return array.length - index;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return index == array.length;
+        }
+
+        @Override
+        public void clear() {
+            index = array.length;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            final Object[] a = array;
+            final int length = a.length;
+            final CoreSubscriber<? super T> s = actual;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    T value;
+                    try {
+                        value = apply(a[i], i);
+                    } catch (Throwable ex) {
+                        cancelled = true;
+                        s.onError(ex);
+                        return;
+                    }
+                    s.onNext(value);
+
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        T apply(Object element, int i) {
+            if (element == null) {
+                throw new NullPointerException("The " + i + "th array element was null");
+            }
+            T value = mapper.apply(element);
+            if (value == null) {
+                throw new NullPointerException("The mapper returned a null value");
+            }
+            return value;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
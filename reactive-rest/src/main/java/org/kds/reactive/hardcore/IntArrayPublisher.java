@@ -0,0 +1,123 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Primitive counterpart of ArrayPublisher, emits the elements of an int[] without boxing.
+ */
+public class IntArrayPublisher implements IntPublisher {
+
+    final int[] array;
+
+    public IntArrayPublisher(int[] array) {
+        this.array = array;
+    }
+
+    @Override
+    public void subscribe(IntSubscriber subscriber) {
+        subscriber.onSubscribe(new IntArraySubscription(array, subscriber));
+    }
+
+    static final class IntArraySubscription implements Subscription {
+
+        final int[] array;
+        final IntSubscriber actual;
+
+        // only touched by the thread that currently owns the emission loop
+        int index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<IntArraySubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(IntArraySubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        IntArraySubscription(int[] array, IntSubscriber actual) {
+            this.array = array;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            if (n == Long.MAX_VALUE) {
+                fastPath();
+            } else {
+                slowPath(n);
+            }
+        }
+
+        void fastPath() {
+            final int[] a = array;
+            final IntSubscriber s = actual;
+
+            for (int i = index; i < a.length; i++) {
+                if (cancelled) {
+                    return;
+                }
+                s.onNext(a[i]);
+            }
+
+            if (cancelled) {
+                return;
+            }
+            s.onComplete();
+        }
+
+        void slowPath(long n) {
+            final int[] a = array;
+            final int length = a.length;
+            final IntSubscriber s = actual;
+
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != length) {
+                    if (cancelled) {
+                        return;
+                    }
+                    s.onNext(a[i]);
+
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == length) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+import java.util.function.IntUnaryOperator;
+
+public class IntMapPublisher implements IntPublisher {
+
+    final IntPublisher parent;
+    final IntUnaryOperator mapper;
+
+    public IntMapPublisher(IntPublisher parent, IntUnaryOperator mapper) {
+        this.parent = parent;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void subscribe(IntSubscriber actual) {
+        parent.subscribe(new IntMapSubscriber(mapper, actual));
+    }
+
+    static class IntMapSubscriber implements IntSubscriber, Subscription {
+
+        final IntUnaryOperator mapper;
+        final IntSubscriber actualSubscriber;
+
+        Subscription upstream;
+        boolean done;
+
+        IntMapSubscriber(IntUnaryOperator mapper, IntSubscriber actualSubscriber) {
+            this.mapper = mapper;
+            this.actualSubscriber = actualSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actualSubscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(int inputValue) {
+            if (done) {
+                return;
+            }
+            int outputValue;
+            try {
+                outputValue = mapper.applyAsInt(inputValue);
+            } catch (Throwable ex) {
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            actualSubscriber.onNext(outputValue);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
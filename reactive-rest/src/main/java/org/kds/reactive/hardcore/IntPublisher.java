@@ -0,0 +1,25 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A Publisher of primitive ints, the same protocol as org.reactivestreams.Publisher
+ * without the Integer allocation per element.
+ */
+public interface IntPublisher {
+
+    void subscribe(IntSubscriber subscriber);
+
+    default IntPublisher map(IntUnaryOperator mapper) {
+        return new IntMapPublisher(this, mapper);
+    }
+
+    /**
+     * Adapter to the plain Publisher<Integer> world, the elements are boxed only here.
+     */
+    default Publisher<Integer> boxed() {
+        return new BoxedIntPublisher(this);
+    }
+}
@@ -0,0 +1,18 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber counterpart of IntPublisher, receives the elements as primitive ints
+ * so that nothing has to be boxed on the way.
+ */
+public interface IntSubscriber {
+
+    void onSubscribe(Subscription s);
+
+    void onNext(int value);
+
+    void onError(Throwable t);
+
+    void onComplete();
+}
@@ -0,0 +1,56 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Emits a single value.
+ *
+ * It is also a Callable, so operators such as FlatMapPublisher can pick up the value at
+ * assembly time instead of subscribing to it.
+ */
+public class JustPublisher<T> implements Publisher<T>, Callable<T> {
+
+    final T value;
+
+    public JustPublisher(T value) {
+        if (value == null) {
+            throw new NullPointerException("value can not be null");
+        }
+        this.value = value;
+    }
+
+    @Override
+    public T call() {
+        return value;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new Subscription() {
+            final AtomicBoolean once = new AtomicBoolean();
+
+            @Override
+            public void request(long n) {
+                if (!once.compareAndSet(false, true)) {
+                    return;
+                }
+                if (n <= 0) {
+                    subscriber.onError(new IllegalArgumentException("n can not be negative"));
+                    return;
+                }
+                subscriber.onNext(value);
+                subscriber.onComplete();
+            }
+
+            @Override
+            public void cancel() {
+                once.set(true);
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+import java.util.function.LongUnaryOperator;
+
+public class LongMapPublisher implements LongPublisher {
+
+    final LongPublisher parent;
+    final LongUnaryOperator mapper;
+
+    public LongMapPublisher(LongPublisher parent, LongUnaryOperator mapper) {
+        this.parent = parent;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void subscribe(LongSubscriber actual) {
+        parent.subscribe(new LongMapSubscriber(mapper, actual));
+    }
+
+    static class LongMapSubscriber implements LongSubscriber, Subscription {
+
+        final LongUnaryOperator mapper;
+        final LongSubscriber actualSubscriber;
+
+        Subscription upstream;
+        boolean done;
+
+        LongMapSubscriber(LongUnaryOperator mapper, LongSubscriber actualSubscriber) {
+            this.mapper = mapper;
+            this.actualSubscriber = actualSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actualSubscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(long inputValue) {
+            if (done) {
+                return;
+            }
+            long outputValue;
+            try {
+                outputValue = mapper.applyAsLong(inputValue);
+            } catch (Throwable ex) {
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            actualSubscriber.onNext(outputValue);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            actualSubscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A Publisher of primitive longs, the same protocol as org.reactivestreams.Publisher
+ * without the Long allocation per element.
+ */
+public interface LongPublisher {
+
+    void subscribe(LongSubscriber subscriber);
+
+    default LongPublisher map(LongUnaryOperator mapper) {
+        return new LongMapPublisher(this, mapper);
+    }
+
+    /**
+     * Adapter to the plain Publisher<Long> world, the elements are boxed only here.
+     */
+    default Publisher<Long> boxed() {
+        return new BoxedLongPublisher(this);
+    }
+}
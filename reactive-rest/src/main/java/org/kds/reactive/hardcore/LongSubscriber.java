@@ -0,0 +1,18 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber counterpart of LongPublisher, receives the elements as primitive longs
+ * so that nothing has to be boxed on the way.
+ */
+public interface LongSubscriber {
+
+    void onSubscribe(Subscription s);
+
+    void onNext(long value);
+
+    void onError(Throwable t);
+
+    void onComplete();
+}
@@ -10,18 +10,49 @@ public class MapPublisher<IN, OUT> implements Publisher<OUT> {
 
     final Publisher<IN> parent;
     final Function<IN, OUT> mapper;
+    // not null when this stage and everything above it collapsed into a single array loop
+    final ArrayMapPublisher<?, OUT> fused;
 
     public MapPublisher(Publisher<IN> parent, Function<IN, OUT> mapper) {
         this.parent = parent;
         this.mapper = mapper;
+        this.fused = fuse(parent, mapper);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void subscribe(Subscriber<? super OUT> actual) {
+        if (fused != null) {
+            fused.subscribe(actual);
+            return;
+        }
         // this is what happens at the assembly time
+        if (actual instanceof ConditionalSubscriber) {
+            parent.subscribe(new MapConditionalSubscriber<>(mapper, (ConditionalSubscriber<? super OUT>) actual));
+            return;
+        }
         parent.subscribe(new MapSubscriber<>(mapper, actual));
     }
 
+    /**
+     * Macro fusion, a map directly on top of an array source (or on top of an already fused
+     * chain of maps) is replaced by one publisher applying the composed mapper, so no
+     * MapSubscriber is created for any of the stages.
+     */
+    @SuppressWarnings("unchecked")
+    static <IN, OUT> ArrayMapPublisher<?, OUT> fuse(Publisher<IN> parent, Function<IN, OUT> mapper) {
+        if (parent instanceof ArrayPublisher) {
+            return new ArrayMapPublisher<>(((ArrayPublisher<IN>) parent).array, mapper);
+        }
+        if (parent instanceof ArrayMapPublisher) {
+            return ((ArrayMapPublisher<?, IN>) parent).map(mapper);
+        }
+        if (parent instanceof MapPublisher && ((MapPublisher<?, IN>) parent).fused != null) {
+            return ((MapPublisher<?, IN>) parent).fused.map(mapper);
+        }
+        return null;
+    }
+
     static class MapSubscriber<IN, OUT> implements Subscriber<IN> {
 
         final Function<IN, OUT> mapper;
@@ -54,4 +85,23 @@ public class MapPublisher<IN, OUT> implements Publisher<OUT> {
             actualSubscriber.onComplete();
         }
     }
+
+    // keeps the conditional contract of the downstream visible to the upstream
+    static class MapConditionalSubscriber<IN, OUT> extends MapSubscriber<IN, OUT>
+            implements ConditionalSubscriber<IN> {
+
+        final ConditionalSubscriber<? super OUT> conditionalSubscriber;
+
+        public MapConditionalSubscriber(Function<IN, OUT> mapper,
+                                        ConditionalSubscriber<? super OUT> conditionalSubscriber) {
+            super(mapper, conditionalSubscriber);
+            this.conditionalSubscriber = conditionalSubscriber;
+        }
+
+        @Override
+        public boolean tryOnNext(IN inputValue) {
+            OUT outputValue = mapper.apply(inputValue);
+            return conditionalSubscriber.tryOnNext(outputValue);
+        }
+    }
 }
@@ -0,0 +1,254 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Emits the records of a file through a memory mapping, one record per requested element.
+ *
+ * The file is mapped window by window, so it may be far larger than both the heap and the
+ * 2GB limit of a single MappedByteBuffer, and nothing is read before it is requested.
+ * Records are either fixed length or newline delimited, they are handed to the decoder
+ * as read-only slices of the mapping without copying. A decoder which keeps the slice,
+ * such as the identity one used by {@link #fixedLength(Path, int)} and {@link #lines(Path)},
+ * gives zero-copy records.
+ *
+ * The channel is closed and the window dropped as soon as the subscription terminates or is
+ * cancelled. The mapping itself is released by the garbage collector, unmapping it eagerly
+ * would crash the JVM on access to a slice still held by the downstream.
+ */
+public class MappedFilePublisher<T> implements Publisher<T> {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // record length meaning the records are separated by '\n'
+    static final int NEWLINE_DELIMITED = 0;
+
+    final Path path;
+    final int recordLength;
+    final int windowSize;
+    final Function<? super ByteBuffer, ? extends T> decoder;
+
+    public MappedFilePublisher(Path path, int recordLength, int windowSize,
+                               Function<? super ByteBuffer, ? extends T> decoder) {
+        if (recordLength < 0) {
+            throw new IllegalArgumentException("recordLength can not be negative");
+        }
+        if (windowSize <= 0 || windowSize < recordLength) {
+            throw new IllegalArgumentException("windowSize must be positive and hold at least one record");
+        }
+        this.path = path;
+        this.recordLength = recordLength;
+        this.windowSize = windowSize;
+        this.decoder = decoder;
+    }
+
+    public static MappedFilePublisher<ByteBuffer> fixedLength(Path path, int recordLength) {
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("recordLength must be positive");
+        }
+        return new MappedFilePublisher<>(path, recordLength, DEFAULT_WINDOW_SIZE, Function.identity());
+    }
+
+    public static MappedFilePublisher<ByteBuffer> lines(Path path) {
+        return new MappedFilePublisher<>(path, NEWLINE_DELIMITED, DEFAULT_WINDOW_SIZE, Function.identity());
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new MappedFileSubscription<>(this, subscriber));
+    }
+
+    static final class MappedFileSubscription<T> implements Subscription {
+
+        final MappedFilePublisher<T> parent;
+        final Subscriber<? super T> actual;
+
+        // everything below is only touched by the thread that owns the emission loop
+        FileChannel channel;
+        long fileSize;
+        MappedByteBuffer window;
+        // file offset of the first byte of the window
+        long windowStart;
+        boolean done;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<MappedFileSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(MappedFileSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        MappedFileSubscription(MappedFilePublisher<T> parent, Subscriber<? super T> actual) {
+            this.parent = parent;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            drain(n);
+        }
+
+        void drain(long n) {
+            final Subscriber<? super T> s = actual;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n) {
+                    if (cancelled) {
+                        release();
+                        return;
+                    }
+
+                    T value;
+                    try {
+                        if (channel == null) {
+                            open();
+                        }
+                        ByteBuffer record = nextRecord();
+                        if (record == null) {
+                            break;
+                        }
+                        value = parent.decoder.apply(record);
+                        if (value == null) {
+                            throw new NullPointerException("The decoder returned a null value");
+                        }
+                    } catch (Throwable ex) {
+                        release();
+                        s.onError(ex);
+                        return;
+                    }
+
+                    s.onNext(value);
+                    sent++;
+                }
+
+                if (cancelled) {
+                    release();
+                    return;
+                }
+
+                if (done) {
+                    release();
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        void open() throws IOException {
+            channel = FileChannel.open(parent.path, StandardOpenOption.READ);
+            fileSize = channel.size();
+            map(0);
+        }
+
+        void map(long position) throws IOException {
+            long size = Math.min(parent.windowSize, fileSize - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            windowStart = position;
+        }
+
+        // the next record as a slice of the window, or null once the file is exhausted
+        ByteBuffer nextRecord() throws IOException {
+            MappedByteBuffer w = window;
+            int start = w.position();
+
+            if (start == w.limit() && windowStart + start == fileSize) {
+                done = true;
+                return null;
+            }
+
+            if (parent.recordLength != NEWLINE_DELIMITED) {
+                int length = parent.recordLength;
+                if (w.limit() - start < length) {
+                    if (windowStart + w.limit() == fileSize) {
+                        throw new IllegalStateException("The file ends with a partial record of "
+                                + (w.limit() - start) + " bytes");
+                    }
+                    // the record crosses the end of the window, move the window onto it
+                    map(windowStart + start);
+                    return nextRecord();
+                }
+                return slice(w, start, start + length, start + length);
+            }
+
+            for (int i = start; i < w.limit(); i++) {
+                if (w.get(i) == '\n') {
+                    return slice(w, start, i, i + 1);
+                }
+            }
+
+            if (windowStart + w.limit() == fileSize) {
+                // the last line has no trailing newline
+                return slice(w, start, w.limit(), w.limit());
+            }
+            if (start == 0) {
+                throw new IllegalStateException("A line at offset " + windowStart
+                        + " is longer than the window of " + parent.windowSize + " bytes");
+            }
+            map(windowStart + start);
+            return nextRecord();
+        }
+
+        static ByteBuffer slice(MappedByteBuffer window, int from, int to, int next) {
+            ByteBuffer record = window.duplicate();
+            record.position(from);
+            record.limit(to);
+            window.position(next);
+            return record.slice();
+        }
+
+        void release() {
+            window = null;
+            FileChannel c = channel;
+            if (c != null) {
+                channel = null;
+                try {
+                    c.close();
+                } catch (IOException ignored) {
+                    // nothing left to read from it anyway
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            // claim the emission loop, if nobody owns it the resources are released right here
+            if (SubscriptionHelper.addCap(REQUESTED, this, 1) == 0) {
+                release();
+            }
+        }
+    }
+}
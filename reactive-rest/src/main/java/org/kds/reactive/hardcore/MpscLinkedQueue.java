@@ -0,0 +1,69 @@
+package org.kds.reactive.hardcore;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Unbounded multi producer single consumer queue after Dmitry Vyukov's intrusive design.
+ *
+ * A producer swaps itself in as the tail with a single getAndSet and then links the previous
+ * tail to its node, so offer never loops and never blocks another producer. The consumer
+ * walks the links from a stub head node.
+ */
+public final class MpscLinkedQueue<T> {
+
+    final AtomicReference<Node<T>> tail;
+    // consumer side only
+    Node<T> head;
+
+    public MpscLinkedQueue() {
+        Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    public void offer(T value) {
+        Node<T> node = new Node<>(value);
+        Node<T> previous = tail.getAndSet(node);
+        previous.lazySetNext(node);
+    }
+
+    public T poll() {
+        Node<T> next = head.next;
+        if (next == null) {
+            // either empty, or a producer has swapped the tail but not linked it yet
+            return null;
+        }
+        T value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return head.next == null && head == tail.get();
+    }
+
+    public void clear() {
+        while (poll() != null) {
+            // drop everything
+        }
+    }
+
+    static final class Node<T> {
+
+        T value;
+
+        volatile Node<T> next;
+        static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        Node(T value) {
+            this.value = value;
+        }
+
+        void lazySetNext(Node<T> node) {
+            NEXT.lazySet(this, node);
+        }
+    }
+}
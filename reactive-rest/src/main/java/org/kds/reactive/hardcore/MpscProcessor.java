@@ -0,0 +1,284 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Bridges imperative producers into a reactive pipeline, onNext may be called from any number
+ * of threads at the same time and the elements are delivered to a single subscriber as it
+ * requests them.
+ *
+ * Producers only touch an MpscLinkedQueue and the depth counter, whichever thread wins the
+ * work in progress counter delivers to the subscriber, there is no lock anywhere. What happens
+ * when the subscriber falls behind depends on the OverflowStrategy.
+ */
+public class MpscProcessor<T> implements Processor<T, T>, Subscription {
+
+    public enum OverflowStrategy {
+        /** keep everything, the capacity is ignored */
+        BUFFER,
+        /** drop the new element once capacity elements are waiting */
+        DROP,
+        /** terminate with an IllegalStateException once capacity elements are waiting */
+        ERROR
+    }
+
+    final MpscLinkedQueue<T> queue = new MpscLinkedQueue<>();
+    final OverflowStrategy overflowStrategy;
+    final long capacity;
+
+    Subscription upstream;
+
+    volatile Subscriber<? super T> actual;
+    static final AtomicReferenceFieldUpdater<MpscProcessor, Subscriber> ACTUAL =
+            AtomicReferenceFieldUpdater.newUpdater(MpscProcessor.class, Subscriber.class, "actual");
+
+    volatile Throwable error;
+    volatile boolean done;
+    volatile boolean cancelled;
+
+    // elements waiting in the queue
+    volatile long depth;
+    static final AtomicLongFieldUpdater<MpscProcessor> DEPTH =
+            AtomicLongFieldUpdater.newUpdater(MpscProcessor.class, "depth");
+
+    volatile long dropped;
+    static final AtomicLongFieldUpdater<MpscProcessor> DROPPED =
+            AtomicLongFieldUpdater.newUpdater(MpscProcessor.class, "dropped");
+
+    volatile long requested;
+    static final AtomicLongFieldUpdater<MpscProcessor> REQUESTED =
+            AtomicLongFieldUpdater.newUpdater(MpscProcessor.class, "requested");
+
+    volatile int wip;
+    static final AtomicIntegerFieldUpdater<MpscProcessor> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(MpscProcessor.class, "wip");
+
+    volatile int once;
+    static final AtomicIntegerFieldUpdater<MpscProcessor> ONCE =
+            AtomicIntegerFieldUpdater.newUpdater(MpscProcessor.class, "once");
+
+    public MpscProcessor() {
+        this(Long.MAX_VALUE, OverflowStrategy.BUFFER);
+    }
+
+    public MpscProcessor(long capacity, OverflowStrategy overflowStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.capacity = overflowStrategy == OverflowStrategy.BUFFER ? Long.MAX_VALUE : capacity;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * Number of elements currently waiting for the subscriber to request them.
+     */
+    public long queueDepth() {
+        return depth;
+    }
+
+    /**
+     * Number of elements dropped by the DROP strategy so far.
+     */
+    public long droppedCount() {
+        return dropped;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (upstream != null || done || cancelled) {
+            s.cancel();
+            return;
+        }
+        upstream = s;
+        // the overflow strategy is what bounds the buffer, not the demand
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (t == null) {
+            throw new NullPointerException("onNext called with null");
+        }
+        if (done || cancelled) {
+            return;
+        }
+        if (!reserve()) {
+            if (overflowStrategy == OverflowStrategy.DROP) {
+                DROPPED.incrementAndGet(this);
+            } else {
+                onError(new IllegalStateException("Queue is full, " + capacity + " elements are waiting"));
+            }
+            return;
+        }
+        queue.offer(t);
+        drain();
+    }
+
+    // claims a slot in the queue, always succeeds for an unbounded one
+    boolean reserve() {
+        if (capacity == Long.MAX_VALUE) {
+            DEPTH.incrementAndGet(this);
+            return true;
+        }
+        for (;;) {
+            long d = depth;
+            if (d >= capacity) {
+                return false;
+            }
+            if (DEPTH.compareAndSet(this, d, d + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (t == null) {
+            throw new NullPointerException("onError called with null");
+        }
+        if (done || !ONCE.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        error = t;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done || !ONCE.compareAndSet(this, 0, 1)) {
+            return;
+        }
+        done = true;
+        drain();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (!ACTUAL.compareAndSet(this, null, subscriber)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("MpscProcessor allows only a single Subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(this);
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            Subscriber<? super T> s = actual;
+            s.onError(new IllegalArgumentException("n can not be negative"));
+            return;
+        }
+        SubscriptionHelper.addCap(REQUESTED, this, n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        Subscription s = upstream;
+        if (s != null) {
+            s.cancel();
+        }
+        drain();
+    }
+
+    void drain() {
+        if (WIP.getAndIncrement(this) != 0) {
+            return;
+        }
+
+        final MpscLinkedQueue<T> q = queue;
+        int missed = 1;
+
+        for (;;) {
+            Subscriber<? super T> s = actual;
+
+            if (cancelled) {
+                // a producer that got past the cancelled check offers after this clear, its
+                // drain() shows up as missed and the next round clears its element
+                clear();
+            } else if (s != null) {
+                long r = requested;
+                long e = 0;
+
+                while (e != r) {
+                    if (cancelled) {
+                        break;
+                    }
+                    boolean d = done;
+                    T v = q.poll();
+                    if (v == null) {
+                        if (d && DEPTH.get(this) == 0) {
+                            terminate(s);
+                            return;
+                        }
+                        break;
+                    }
+                    DEPTH.decrementAndGet(this);
+                    s.onNext(v);
+                    e++;
+                }
+
+                if (cancelled) {
+                    clear();
+                } else {
+                    if (e == r && done && depth == 0) {
+                        terminate(s);
+                        return;
+                    }
+
+                    if (e != 0 && r != Long.MAX_VALUE) {
+                        REQUESTED.addAndGet(this, -e);
+                    }
+                }
+            }
+
+            missed = WIP.addAndGet(this, -missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    void terminate(Subscriber<? super T> s) {
+        Throwable ex = error;
+        if (ex != null) {
+            s.onError(ex);
+        } else {
+            s.onComplete();
+        }
+    }
+
+    // a producer between reserve() and offer() still holds its slot, only release what was polled
+    void clear() {
+        long drained = 0;
+        while (queue.poll() != null) {
+            drained++;
+        }
+        if (drained != 0) {
+            DEPTH.addAndGet(this, -drained);
+        }
+    }
+}
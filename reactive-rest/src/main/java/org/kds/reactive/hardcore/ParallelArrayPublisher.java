@@ -0,0 +1,447 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Splits an array into contiguous ranges, the rails, each emitted on a ForkJoinPool worker
+ * with its own demand accounting.
+ *
+ * Map stages added with {@link #map(Function)} are composed into the rails, so they run in
+ * parallel too. {@link #sequential()} merges the rails back in whatever order they produce,
+ * {@link #sequential(boolean)} can also keep the array order, then the rails are still
+ * drained in parallel but buffered until it is their turn.
+ */
+public class ParallelArrayPublisher<T> {
+
+    public static final int DEFAULT_PREFETCH = 256;
+
+    final Object[] array;
+    final Function<Object, ? extends T> mapper;
+    final int parallelism;
+    final Executor executor;
+
+    public ParallelArrayPublisher(T[] array) {
+        this(array, ForkJoinPool.getCommonPoolParallelism(), ForkJoinPool.commonPool());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ParallelArrayPublisher(T[] array, int parallelism, ForkJoinPool pool) {
+        this(array, parallelism, pool, t -> (T) t);
+    }
+
+    ParallelArrayPublisher(Object[] array, int parallelism, Executor executor, Function<Object, ? extends T> mapper) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive, was " + parallelism);
+        }
+        this.array = array;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.mapper = mapper;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Adds a map stage which runs on the rails.
+     */
+    public <R> ParallelArrayPublisher<R> map(Function<? super T, ? extends R> next) {
+        Function<Object, ? extends T> current = mapper;
+        return new ParallelArrayPublisher<>(array, parallelism, executor, t -> next.apply(current.apply(t)));
+    }
+
+    /**
+     * The i-th rail as a Publisher of its own.
+     */
+    public Publisher<T> rail(int i) {
+        if (i < 0 || i >= parallelism) {
+            throw new IndexOutOfBoundsException("rail " + i + " of " + parallelism);
+        }
+        int from = (int) ((long) i * array.length / parallelism);
+        int to = (int) ((long) (i + 1) * array.length / parallelism);
+        return subscriber -> subscriber.onSubscribe(new RailSubscription<>(array, from, to, mapper, executor, subscriber));
+    }
+
+    /**
+     * Subscribes one subscriber per rail.
+     */
+    public void subscribe(Subscriber<? super T>[] subscribers) {
+        if (subscribers.length != parallelism) {
+            throw new IllegalArgumentException("expected " + parallelism + " subscribers, got " + subscribers.length);
+        }
+        for (int i = 0; i < parallelism; i++) {
+            rail(i).subscribe(subscribers[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Publisher<T>[] rails() {
+        Publisher<T>[] rails = new Publisher[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            rails[i] = rail(i);
+        }
+        return rails;
+    }
+
+    /**
+     * Merges the rails back into a single sequence, in no particular order.
+     */
+    public Publisher<T> sequential() {
+        return sequential(false);
+    }
+
+    public Publisher<T> sequential(boolean ordered) {
+        if (ordered) {
+            return subscriber -> new OrderedJoin<>(subscriber, rails(), DEFAULT_PREFETCH).subscribe();
+        }
+        return new FlatMapPublisher<Publisher<T>, T>(new ArrayPublisher<>(rails()), Function.identity(),
+                parallelism, DEFAULT_PREFETCH);
+    }
+
+    static final class RailSubscription<T> implements Subscription, Runnable {
+
+        final Object[] array;
+        final int to;
+        final Function<Object, ? extends T> mapper;
+        final Executor executor;
+        final Subscriber<? super T> actual;
+
+        // only touched by the worker that currently owns the emission loop
+        int index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<RailSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(RailSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        RailSubscription(Object[] array, int from, int to, Function<Object, ? extends T> mapper,
+                         Executor executor, Subscriber<? super T> actual) {
+            this.array = array;
+            this.index = from;
+            this.to = to;
+            this.mapper = mapper;
+            this.executor = executor;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            // the rail is emitted on the pool, never on the requesting thread
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    cancelled = true;
+                    actual.onError(ex);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            final Object[] a = array;
+            final int end = to;
+            final Subscriber<? super T> s = actual;
+
+            long n = requested;
+            int i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != end) {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    Object element = a[i];
+                    if (element == null) {
+                        s.onError(new NullPointerException("The " + i + "th array element was null"));
+                        return;
+                    }
+
+                    T value;
+                    try {
+                        value = mapper.apply(element);
+                        if (value == null) {
+                            throw new NullPointerException("The mapper returned a null value");
+                        }
+                    } catch (Throwable ex) {
+                        cancelled = true;
+                        s.onError(ex);
+                        return;
+                    }
+                    s.onNext(value);
+
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == end) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Subscribes to all rails at once and emits them one after the other, the rails which are
+     * not yet due keep working until their prefetch buffer is full.
+     */
+    static final class OrderedJoin<T> implements Subscription {
+
+        final Subscriber<? super T> actual;
+        final Publisher<T>[] rails;
+        final JoinInner<T>[] inners;
+
+        // owned by the drain loop, the rail being emitted
+        int current;
+
+        volatile boolean cancelled;
+
+        volatile Throwable error;
+        static final AtomicReferenceFieldUpdater<OrderedJoin, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(OrderedJoin.class, Throwable.class, "error");
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<OrderedJoin> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(OrderedJoin.class, "requested");
+
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<OrderedJoin> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(OrderedJoin.class, "wip");
+
+        @SuppressWarnings("unchecked")
+        OrderedJoin(Subscriber<? super T> actual, Publisher<T>[] rails, int prefetch) {
+            this.actual = actual;
+            this.rails = rails;
+            this.inners = new JoinInner[rails.length];
+            for (int i = 0; i < rails.length; i++) {
+                inners[i] = new JoinInner<>(this, prefetch);
+            }
+        }
+
+        void subscribe() {
+            actual.onSubscribe(this);
+            for (int i = 0; i < rails.length && !cancelled; i++) {
+                rails[i].subscribe(inners[i]);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+            SubscriptionHelper.addCap(REQUESTED, this, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (WIP.getAndIncrement(this) == 0) {
+                cancelAll();
+            }
+        }
+
+        void cancelAll() {
+            for (JoinInner<T> inner : inners) {
+                inner.cancel();
+                inner.queue.clear();
+            }
+        }
+
+        void innerError(Throwable t) {
+            if (ERROR.compareAndSet(this, null, t)) {
+                drain();
+            }
+        }
+
+        void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+
+            final Subscriber<? super T> s = actual;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested;
+                long e = 0;
+
+                while (current != inners.length) {
+                    JoinInner<T> inner = inners[current];
+                    boolean d = false;
+                    long emitted = 0;
+
+                    while (e != r) {
+                        if (checkTerminated()) {
+                            return;
+                        }
+                        d = inner.done;
+                        T v = inner.queue.poll();
+                        if (v == null) {
+                            break;
+                        }
+                        s.onNext(v);
+                        e++;
+                        emitted++;
+                    }
+                    if (emitted != 0) {
+                        inner.consumed(emitted);
+                    }
+
+                    if (e == r) {
+                        d = inner.done;
+                    }
+                    if (d && inner.queue.isEmpty()) {
+                        current++;
+                        continue;
+                    }
+                    break;
+                }
+
+                if (checkTerminated()) {
+                    return;
+                }
+
+                if (current == inners.length) {
+                    s.onComplete();
+                    return;
+                }
+
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        boolean checkTerminated() {
+            if (cancelled) {
+                cancelAll();
+                return true;
+            }
+            Throwable ex = error;
+            if (ex != null) {
+                cancelAll();
+                actual.onError(ex);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    static final class JoinInner<T> implements Subscriber<T> {
+
+        final OrderedJoin<T> parent;
+        final int prefetch;
+        final int limit;
+        final SpscArrayQueue<T> queue;
+
+        volatile Subscription upstream;
+        volatile boolean done;
+
+        // owned by the drain loop
+        long consumed;
+
+        JoinInner(OrderedJoin<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!queue.offer(t)) {
+                upstream.cancel();
+                onError(new IllegalStateException("Rail queue is full, the rail did not respect back pressure"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done = true;
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        void consumed(long n) {
+            long c = consumed + n;
+            if (c >= limit) {
+                consumed = 0;
+                upstream.request(c);
+            } else {
+                consumed = c;
+            }
+        }
+
+        void cancel() {
+            Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
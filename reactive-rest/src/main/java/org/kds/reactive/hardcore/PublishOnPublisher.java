@@ -0,0 +1,230 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Moves the emission of the downstream signals to the given Executor, the hand-rolled
+ * counterpart of Reactor's publishOn.
+ *
+ * The upstream fills a prefetch sized SpscArrayQueue from its own thread and the worker
+ * drains it. Upstream demand is replenished in batches, once 75% of the prefetch has been
+ * consumed, instead of one request per element.
+ */
+public class PublishOnPublisher<T> implements Publisher<T> {
+
+    public static final int DEFAULT_PREFETCH = 256;
+
+    final Publisher<T> parent;
+    final Executor executor;
+    final int prefetch;
+
+    public PublishOnPublisher(Publisher<T> parent, Executor executor) {
+        this(parent, executor, DEFAULT_PREFETCH);
+    }
+
+    public PublishOnPublisher(Publisher<T> parent, Executor executor, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be positive, was " + prefetch);
+        }
+        this.parent = parent;
+        this.executor = executor;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> actual) {
+        parent.subscribe(new PublishOnSubscriber<>(actual, executor, prefetch));
+    }
+
+    static final class PublishOnSubscriber<T> implements Subscriber<T>, Subscription, Runnable {
+
+        final Subscriber<? super T> actual;
+        final Executor executor;
+        final int prefetch;
+        // replenish after consuming this many elements
+        final int limit;
+        final SpscArrayQueue<T> queue;
+
+        Subscription upstream;
+
+        // owned by the drain loop
+        long produced;
+        int consumed;
+
+        Throwable error;
+        volatile boolean done;
+        volatile boolean cancelled;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<PublishOnSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(PublishOnSubscriber.class, "requested");
+
+        // work in progress, the drain task is scheduled only on the 0 -> 1 transition
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<PublishOnSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(PublishOnSubscriber.class, "wip");
+
+        PublishOnSubscriber(Subscriber<? super T> actual, Executor executor, int prefetch) {
+            this.actual = actual;
+            this.executor = executor;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.upstream = s;
+            actual.onSubscribe(this);
+            s.request(prefetch);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(t)) {
+                // the upstream ignored the demand
+                upstream.cancel();
+                error = new IllegalStateException("Queue is full, the upstream did not respect back pressure");
+                done = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+            SubscriptionHelper.addCap(REQUESTED, this, n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            upstream.cancel();
+            // nobody is draining, drop the buffered elements right away
+            if (WIP.getAndIncrement(this) == 0) {
+                queue.clear();
+            }
+        }
+
+        void schedule() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                upstream.cancel();
+                queue.clear();
+                actual.onError(ex);
+            }
+        }
+
+        // the drain loop, runs on the executor
+        @Override
+        public void run() {
+            final SpscArrayQueue<T> q = queue;
+            final Subscriber<? super T> s = actual;
+
+            int missed = 1;
+            long e = produced;
+            int c = consumed;
+
+            for (;;) {
+                long r = requested;
+
+                while (e != r) {
+                    boolean d = done;
+                    T v = q.poll();
+                    boolean empty = v == null;
+
+                    if (checkTerminated(d, empty)) {
+                        return;
+                    }
+
+                    if (empty) {
+                        break;
+                    }
+
+                    s.onNext(v);
+                    e++;
+
+                    if (++c == limit) {
+                        c = 0;
+                        upstream.request(limit);
+                    }
+                }
+
+                if (e == r && checkTerminated(done, q.isEmpty())) {
+                    return;
+                }
+
+                int w = wip;
+                if (missed == w) {
+                    produced = e;
+                    consumed = c;
+                    missed = WIP.addAndGet(this, -missed);
+                    if (missed == 0) {
+                        return;
+                    }
+                } else {
+                    missed = w;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            // buffered elements are delivered before a terminal signal
+            if (d && empty) {
+                Throwable ex = error;
+                if (ex != null) {
+                    actual.onError(ex);
+                } else {
+                    actual.onComplete();
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
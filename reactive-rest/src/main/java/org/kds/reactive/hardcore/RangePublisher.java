@@ -0,0 +1,131 @@
+package org.kds.reactive.hardcore;
+
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Emits count consecutive longs starting from start, nothing is stored or boxed.
+ */
+public class RangePublisher implements LongPublisher {
+
+    final long start;
+    final long end;
+
+    public RangePublisher(long start, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count can not be negative");
+        }
+        if (start + count < start) {
+            throw new IllegalArgumentException("start + count can not exceed Long.MAX_VALUE");
+        }
+        this.start = start;
+        this.end = start + count;
+    }
+
+    @Override
+    public void subscribe(LongSubscriber subscriber) {
+        subscriber.onSubscribe(new RangeSubscription(start, end, subscriber));
+    }
+
+    static final class RangeSubscription implements Subscription {
+
+        final long end;
+        final LongSubscriber actual;
+
+        // only touched by the thread that currently owns the emission loop
+        long index;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<RangeSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(RangeSubscription.class, "requested");
+
+        volatile boolean cancelled;
+
+        RangeSubscription(long start, long end, LongSubscriber actual) {
+            this.index = start;
+            this.end = end;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0 && !cancelled) {
+                cancel();
+                actual.onError(new IllegalArgumentException("n can not be negative"));
+                return;
+            }
+
+            if (SubscriptionHelper.addCap(REQUESTED, this, n) != 0) {
+                return;
+            }
+
+            if (n == Long.MAX_VALUE) {
+                fastPath();
+            } else {
+                slowPath(n);
+            }
+        }
+
+        void fastPath() {
+            final long e = end;
+            final LongSubscriber s = actual;
+
+            for (long i = index; i != e; i++) {
+                if (cancelled) {
+                    return;
+                }
+                s.onNext(i);
+            }
+
+            if (cancelled) {
+                return;
+            }
+            s.onComplete();
+        }
+
+        void slowPath(long n) {
+            final long e = end;
+            final LongSubscriber s = actual;
+
+            long i = index;
+            long sent = 0;
+
+            while (true) {
+                while (sent != n && i != e) {
+                    if (cancelled) {
+                        return;
+                    }
+                    s.onNext(i);
+
+                    i++;
+                    sent++;
+                }
+
+                if (cancelled) {
+                    return;
+                }
+
+                if (i == e) {
+                    s.onComplete();
+                    return;
+                }
+
+                n = requested;
+                if (n == sent) {
+                    index = i;
+                    n = REQUESTED.addAndGet(this, -sent);
+                    if (n == 0) {
+                        return;
+                    }
+                    sent = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.kds.reactive.hardcore;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded single producer single consumer queue over a power-of-two sized array.
+ *
+ * Each side only touches its own index, a slot is free as long as it holds null, so offer
+ * and poll need no CAS at all. The indexes live on separate cache lines, see the padding
+ * classes below, to keep the producer and the consumer thread from false sharing.
+ */
+final class SpscArrayQueue<T> extends SpscArrayQueueConsumerIndex {
+
+    final AtomicReferenceArray<T> buffer;
+    final int mask;
+
+    SpscArrayQueue(int capacity) {
+        int size = roundToPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(T value) {
+        if (value == null) {
+            throw new NullPointerException("null elements are not supported");
+        }
+        long pi = producerIndex;
+        int offset = (int) pi & mask;
+        if (buffer.get(offset) != null) {
+            return false;
+        }
+        buffer.lazySet(offset, value);
+        PRODUCER_INDEX.lazySet(this, pi + 1);
+        return true;
+    }
+
+    T poll() {
+        long ci = consumerIndex;
+        int offset = (int) ci & mask;
+        T value = buffer.get(offset);
+        if (value == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        CONSUMER_INDEX.lazySet(this, ci + 1);
+        return value;
+    }
+
+    boolean isEmpty() {
+        return producerIndex == consumerIndex;
+    }
+
+    int size() {
+        return (int) (producerIndex - consumerIndex);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    // consumer side only
+    void clear() {
+        while (poll() != null) {
+            // drop everything
+        }
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        if (value <= 0 || value > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30, was " + value);
+        }
+        return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+    }
+}
+
+abstract class SpscArrayQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscArrayQueueProducerIndex extends SpscArrayQueuePad0 {
+    volatile long producerIndex;
+    static final AtomicLongFieldUpdater<SpscArrayQueueProducerIndex> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(SpscArrayQueueProducerIndex.class, "producerIndex");
+}
+
+abstract class SpscArrayQueuePad1 extends SpscArrayQueueProducerIndex {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscArrayQueueConsumerIndex extends SpscArrayQueuePad1 {
+    volatile long consumerIndex;
+    static final AtomicLongFieldUpdater<SpscArrayQueueConsumerIndex> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(SpscArrayQueueConsumerIndex.class, "consumerIndex");
+
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,40 @@
+package org.kds.reactive.hardcore;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Demand accounting shared by the publishers in this package.
+ */
+final class SubscriptionHelper {
+
+    private SubscriptionHelper() {
+    }
+
+    /**
+     * Adds n to the requested counter capping at Long.MAX_VALUE and returns the previous value.
+     */
+    static <S> long addCap(AtomicLongFieldUpdater<S> requested, S instance, long n) {
+        for (;;) {
+            long current = requested.get(instance);
+            if (current == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            if (requested.compareAndSet(instance, current, addCap(current, n))) {
+                return current;
+            }
+        }
+    }
+
+    static long addCap(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    static long multiplyCap(long a, long b) {
+        long product = a * b;
+        if (((a | b) >>> 31) != 0 && product / b != a) {
+            return Long.MAX_VALUE;
+        }
+        return product;
+    }
+}
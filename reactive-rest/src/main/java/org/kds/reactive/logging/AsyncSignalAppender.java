@@ -0,0 +1,46 @@
+package org.kds.reactive.logging;
+
+import org.kds.reactive.hardcore.MpscProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Writes signal events to SLF4J from a dedicated thread.
+ *
+ * Producers only offer to a bounded MpscProcessor, which drops the event when capacity
+ * events are already waiting, so a burst of logging never blocks nor grows the heap of
+ * the thread emitting the signal.
+ */
+final class AsyncSignalAppender {
+
+    private final MpscProcessor<SignalEvent> queue;
+
+    AsyncSignalAppender(int capacity) {
+        this.queue = new MpscProcessor<>(capacity, MpscProcessor.OverflowStrategy.DROP);
+        Scheduler writer = Schedulers.newSingle("signal-log", true);
+        Flux.from(queue)
+                // the producer that wins the drain only hands over to the writer thread
+                .publishOn(writer, 64)
+                .subscribe(AsyncSignalAppender::write);
+    }
+
+    void append(SignalEvent event) {
+        queue.onNext(event);
+    }
+
+    long dropped() {
+        return queue.droppedCount();
+    }
+
+    private static void write(SignalEvent event) {
+        Logger logger = LoggerFactory.getLogger(event.category);
+        if (event.payload instanceof Throwable) {
+            logger.error(event.toString(), (Throwable) event.payload);
+        } else {
+            logger.info(event.toString());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.kds.reactive.logging;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Replacement for log() on the hot endpoints: every signal is logged with a probability of
+ * 1 in sampleRate and handed to an AsyncSignalAppender instead of being written by the
+ * thread emitting it.
+ *
+ * Sampling is off by default, in which case each signal costs a volatile read. The global
+ * rate can be changed at runtime, including for the subscriptions already running, and a
+ * single request can ask for its own rate with the X-Log-Sample header, see
+ * SampledLogWebFilter.
+ */
+public final class SampledLog {
+
+    public static final String HEADER = "X-Log-Sample";
+
+    /**
+     * Subscriber context key overriding the global sample rate for one subscription.
+     */
+    public static final String CONTEXT_KEY = SampledLog.class.getName() + ".sampleRate";
+
+    private static final int APPENDER_CAPACITY = 8192;
+
+    // no per-subscription rate, the global one is read on every signal
+    private static final int FOLLOW_GLOBAL = -1;
+
+    // 0 for off, 1 for every signal, n for 1 in n signals
+    private static volatile int sampleRate;
+
+    // set once AppenderHolder is initialised, reading it does not initialise the holder
+    private static volatile boolean appenderStarted;
+
+    private SampledLog() {
+    }
+
+    public static int getSampleRate() {
+        return sampleRate;
+    }
+
+    public static void setSampleRate(int rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("sample rate can not be negative but was " + rate);
+        }
+        sampleRate = rate;
+    }
+
+    /**
+     * Events lost because the appender could not keep up.
+     */
+    public static long droppedEvents() {
+        return appenderStarted ? AppenderHolder.APPENDER.dropped() : 0L;
+    }
+
+    /**
+     * To be used with transform, logs the sampled signals under the given category.
+     */
+    public static <T> Function<Flux<T>, Flux<T>> signals(String category) {
+        return source -> Flux.deferWithContext(context -> {
+            int override = context.getOrDefault(CONTEXT_KEY, FOLLOW_GLOBAL);
+            if (override == 0) {
+                return source;
+            }
+            return source.transform(Operators.<T, T>lift(
+                    (scannable, actual) -> new SamplingSubscriber<>(actual, category, override)));
+        });
+    }
+
+    // started with the first sampled subscription, nothing runs while sampling is off
+    private static final class AppenderHolder {
+
+        static final AsyncSignalAppender APPENDER = new AsyncSignalAppender(APPENDER_CAPACITY);
+
+        static {
+            appenderStarted = true;
+        }
+    }
+
+    static final class SamplingSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        final CoreSubscriber<? super T> actual;
+        final String category;
+        final int override;
+
+        Subscription upstream;
+
+        SamplingSubscriber(CoreSubscriber<? super T> actual, String category, int override) {
+            this.actual = actual;
+            this.category = category;
+            this.override = override;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            sample(SignalType.ON_SUBSCRIBE, null);
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            sample(SignalType.ON_NEXT, t);
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            sample(SignalType.ON_ERROR, t);
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            sample(SignalType.ON_COMPLETE, null);
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            sample(SignalType.REQUEST, n);
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            sample(SignalType.CANCEL, null);
+            upstream.cancel();
+        }
+
+        // a random draw needs no shared counter between the signalling threads
+        private void sample(SignalType type, Object payload) {
+            int rate = override == FOLLOW_GLOBAL ? sampleRate : override;
+            if (rate <= 0) {
+                return;
+            }
+            if (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0) {
+                AppenderHolder.APPENDER.append(new SignalEvent(category, type, payload, Thread.currentThread().getName()));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.kds.reactive.logging;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets a single request pick its own sample rate, X-Log-Sample: 1 logs every signal of
+ * that request whatever the global rate is.
+ */
+@Component
+public class SampledLogWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(SampledLog.HEADER);
+        if (header == null) {
+            return chain.filter(exchange);
+        }
+        int rate;
+        try {
+            rate = Integer.parseInt(header.trim());
+        } catch (NumberFormatException e) {
+            return chain.filter(exchange);
+        }
+        if (rate < 0) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .subscriberContext(context -> context.put(SampledLog.CONTEXT_KEY, rate));
+    }
+}
@@ -0,0 +1,39 @@
+package org.kds.reactive.logging;
+
+import reactor.core.publisher.SignalType;
+
+/**
+ * A sampled signal on its way to the AsyncSignalAppender, the text is only built on the
+ * appender's thread.
+ */
+final class SignalEvent {
+
+    final String category;
+    final SignalType type;
+    // the element, the error or the requested amount depending on the type
+    final Object payload;
+    final String thread;
+
+    SignalEvent(String category, SignalType type, Object payload, String thread) {
+        this.category = category;
+        this.type = type;
+        this.payload = payload;
+        this.thread = thread;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ON_SUBSCRIBE:
+                return "| onSubscribe() on " + thread;
+            case REQUEST:
+                return "| request(" + (Long.MAX_VALUE == (Long) payload ? "unbounded" : payload) + ") on " + thread;
+            case ON_NEXT:
+                return "| onNext(" + payload + ") on " + thread;
+            case ON_ERROR:
+                return "| onError(" + payload + ") on " + thread;
+            default:
+                return "| " + type + "() on " + thread;
+        }
+    }
+}
@@ -3,28 +3,45 @@ package org.kds.reactive.mapper;
 import org.kds.reactive.model.Error;
 import org.kds.reactive.model.FormatNameRequest;
 import org.kds.reactive.model.FormattedNameResponse;
-import org.springframework.web.bind.support.WebExchangeBindException;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class FormattedNameResponseMapper {
 
+    public static final String DEFAULT_TEMPLATE = "default";
+
+    // compiled once, selected per request by FormatNameRequest#getTemplate
+    private static final Map<String, NameTemplate> TEMPLATES = new HashMap<>();
+
+    static {
+        TEMPLATES.put(DEFAULT_TEMPLATE, NameTemplate.compile("{title} {firstName} {middleName} {lastName}"));
+        TEMPLATES.put("formal", NameTemplate.compile("{title} {lastName}"));
+        TEMPLATES.put("informal", NameTemplate.compile("{firstName} {lastName}"));
+        TEMPLATES.put("optionalMiddle", NameTemplate.compile("{title} {firstName} {middleName?} {lastName}"));
+    }
+
     private FormattedNameResponseMapper() {
     }
 
+    /**
+     * @return the named template, the default one for a null or unknown name
+     */
+    public static NameTemplate template(String name) {
+        NameTemplate template = name == null ? null : TEMPLATES.get(name);
+        return template == null ? TEMPLATES.get(DEFAULT_TEMPLATE) : template;
+    }
+
     public static FormattedNameResponse fromFormatNameRequest(FormatNameRequest req) {
-        String s = String.format("%s %s %s %s", req.getTitle(), req.getFirstName(), req.getMiddleName(), req.getLastName());
+        String s = template(req.getTemplate()).format(req);
         FormattedNameResponse res = new FormattedNameResponse();
         res.setFormattedName(s);
         return res;
     }
 
-    public static FormattedNameResponse fromWebExchangeBindException(WebExchangeBindException ex) {
+    public static FormattedNameResponse fromErrors(List<Error> errors) {
         FormattedNameResponse res = new FormattedNameResponse();
-        List<Error> errors = ex.getFieldErrors().stream()
-                .map(fieldError -> new Error(fieldError.getField(), fieldError.getDefaultMessage()))
-                .collect(Collectors.toList());
         res.setErrors(errors);
         return res;
     }
@@ -0,0 +1,119 @@
+package org.kds.reactive.mapper;
+
+import org.kds.reactive.model.FormatNameRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A name format such as "{title} {firstName} {middleName?} {lastName}", parsed once into
+ * literals and field getters so that formatting is a single pre-sized StringBuilder.
+ *
+ * A placeholder ending in '?' is optional, when its value is null or empty it is left out
+ * together with the literal in front of it. A missing required value is written as "null",
+ * the same as String.format did.
+ */
+public final class NameTemplate {
+
+    private static final Map<String, Function<FormatNameRequest, String>> FIELDS = new HashMap<>();
+
+    static {
+        FIELDS.put("title", FormatNameRequest::getTitle);
+        FIELDS.put("firstName", FormatNameRequest::getFirstName);
+        FIELDS.put("middleName", FormatNameRequest::getMiddleName);
+        FIELDS.put("lastName", FormatNameRequest::getLastName);
+    }
+
+    private final String template;
+    // the literal in front of each placeholder
+    private final String[] prefixes;
+    private final Function<FormatNameRequest, String>[] getters;
+    private final boolean[] optional;
+    private final String suffix;
+
+    private NameTemplate(String template, String[] prefixes, Function<FormatNameRequest, String>[] getters,
+                         boolean[] optional, String suffix) {
+        this.template = template;
+        this.prefixes = prefixes;
+        this.getters = getters;
+        this.optional = optional;
+        this.suffix = suffix;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static NameTemplate compile(String template) {
+        List<String> prefixes = new ArrayList<>();
+        List<Function<FormatNameRequest, String>> getters = new ArrayList<>();
+        List<Boolean> optional = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + open + " in " + template);
+            }
+            String name = template.substring(open + 1, close);
+            boolean isOptional = name.endsWith("?");
+            if (isOptional) {
+                name = name.substring(0, name.length() - 1);
+            }
+            Function<FormatNameRequest, String> getter = FIELDS.get(name);
+            if (getter == null) {
+                throw new IllegalArgumentException("Unknown placeholder {" + name + "} in " + template
+                        + ", expected one of " + FIELDS.keySet());
+            }
+
+            prefixes.add(template.substring(literalStart, open));
+            getters.add(getter);
+            optional.add(isOptional);
+
+            literalStart = close + 1;
+            open = template.indexOf('{', literalStart);
+        }
+
+        boolean[] optionalFlags = new boolean[optional.size()];
+        for (int i = 0; i < optionalFlags.length; i++) {
+            optionalFlags[i] = optional.get(i);
+        }
+        return new NameTemplate(template,
+                prefixes.toArray(new String[0]),
+                getters.toArray(new Function[0]),
+                optionalFlags,
+                template.substring(literalStart));
+    }
+
+    public String format(FormatNameRequest request) {
+        // first pass sizes the builder exactly, the getters are plain field reads
+        int length = suffix.length();
+        for (int i = 0; i < getters.length; i++) {
+            String value = getters[i].apply(request);
+            if (skip(i, value)) {
+                continue;
+            }
+            length += prefixes[i].length() + (value == null ? 4 : value.length());
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < getters.length; i++) {
+            String value = getters[i].apply(request);
+            if (skip(i, value)) {
+                continue;
+            }
+            sb.append(prefixes[i]).append(value);
+        }
+        return sb.append(suffix).toString();
+    }
+
+    private boolean skip(int i, String value) {
+        return optional[i] && (value == null || value.isEmpty());
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -0,0 +1,55 @@
+package org.kds.reactive.metrics;
+
+/**
+ * Request count and latency percentiles of a route for one response status, since the start
+ * of the application. The latencies are in microseconds.
+ */
+public class LatencySnapshot {
+
+    private final int status;
+    private final long count;
+    private final long sumMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+
+    public LatencySnapshot(int status, long count, long sumMicros,
+                           long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+        this.status = status;
+        this.count = count;
+        this.sumMicros = sumMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumMicros() {
+        return sumMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getP999Micros() {
+        return p999Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+}
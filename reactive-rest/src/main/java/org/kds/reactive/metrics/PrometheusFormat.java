@@ -0,0 +1,126 @@
+package org.kds.reactive.metrics;
+
+import org.kds.reactive.stream.SlowConsumerGuard;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes the route and streaming endpoint metrics in the Prometheus text exposition format
+ * 0.0.4, latencies as summaries in seconds.
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private static final String[] QUANTILES = {"0.5", "0.99", "0.999"};
+
+    private PrometheusFormat() {
+    }
+
+    public static String format(long inFlight, List<RouteSnapshot> routes) {
+        StringBuilder out = new StringBuilder(256 + routes.size() * 512);
+        routes(out, inFlight, routes);
+        return out.toString();
+    }
+
+    public static void routes(StringBuilder out, long inFlight, List<RouteSnapshot> routes) {
+        header(out, "http_server_requests_in_flight", "gauge", "Requests received and not completed yet");
+        out.append("http_server_requests_in_flight ").append(inFlight).append('\n');
+
+        header(out, "http_server_requests_seconds", "summary", "Time from receiving a request to completing its response");
+        for (RouteSnapshot route : routes) {
+            for (LatencySnapshot latency : route.getStatuses()) {
+                long[] values = {latency.getP50Micros(), latency.getP99Micros(), latency.getP999Micros()};
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    sample(out, "http_server_requests_seconds", route.getRoute(), latency.getStatus(), QUANTILES[i]);
+                    seconds(out, values[i]);
+                }
+                sample(out, "http_server_requests_seconds_count", route.getRoute(), latency.getStatus(), null);
+                out.append(latency.getCount()).append('\n');
+                sample(out, "http_server_requests_seconds_sum", route.getRoute(), latency.getStatus(), null);
+                seconds(out, latency.getSumMicros());
+            }
+        }
+
+        header(out, "http_server_responses_in_flight", "gauge", "Responses started and not completed yet");
+        for (RouteSnapshot route : routes) {
+            sample(out, "http_server_responses_in_flight", route.getRoute(), 0, null);
+            out.append(route.getInFlight()).append('\n');
+        }
+
+        header(out, "http_server_response_bytes_total", "counter", "Response body bytes written");
+        for (RouteSnapshot route : routes) {
+            sample(out, "http_server_response_bytes_total", route.getRoute(), 0, null);
+            out.append(route.getBytesWritten()).append('\n');
+        }
+    }
+
+    /**
+     * The counters of the SlowConsumerGuards of the streaming endpoints.
+     */
+    public static void streams(StringBuilder out, Collection<SlowConsumerGuard> guards) {
+        header(out, "stream_dropped_elements_total", "counter", "Elements lost by slow clients");
+        for (SlowConsumerGuard guard : guards) {
+            endpoint(out, "stream_dropped_elements_total", guard).append(guard.getDropped()).append('\n');
+        }
+        header(out, "stream_disconnected_total", "counter", "Connections ended for lagging behind");
+        for (SlowConsumerGuard guard : guards) {
+            endpoint(out, "stream_disconnected_total", guard).append(guard.getDisconnected()).append('\n');
+        }
+        header(out, "stream_lagging_connections", "gauge", "Connections currently behind");
+        for (SlowConsumerGuard guard : guards) {
+            endpoint(out, "stream_lagging_connections", guard).append(guard.getLagging()).append('\n');
+        }
+    }
+
+    /**
+     * A single metric without labels.
+     */
+    public static void value(StringBuilder out, String name, String type, String help, long value) {
+        header(out, name, type, help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static StringBuilder endpoint(StringBuilder out, String name, SlowConsumerGuard guard) {
+        out.append(name).append("{endpoint=\"");
+        escape(out, guard.getName());
+        return out.append("\",policy=\"").append(guard.getPolicy()).append("\"} ");
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    // status 0 for a metric without status label
+    private static void sample(StringBuilder out, String name, String route, int status, String quantile) {
+        out.append(name).append("{route=\"");
+        escape(out, route);
+        out.append('"');
+        if (status != 0) {
+            out.append(",status=\"").append(status).append('"');
+        }
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ");
+    }
+
+    private static void seconds(StringBuilder out, long micros) {
+        out.append(micros / 1_000_000.0).append('\n');
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
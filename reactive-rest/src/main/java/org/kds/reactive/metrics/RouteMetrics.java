@@ -0,0 +1,123 @@
+package org.kds.reactive.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, throughput, in flight and written bytes of every route, fed by
+ * RouteMetricsWebFilter.
+ *
+ * Latencies go into a HdrHistogram Recorder per route and status, recording is wait free so
+ * the event loops never wait on each other or on a reader. A snapshot swaps out the interval
+ * histogram of each recorder and folds it into a histogram kept since the start, the
+ * percentiles are computed on the latter so any number of readers see the same values.
+ */
+public class RouteMetrics {
+
+    /**
+     * Route of the requests no handler was found for, keeps 404 scans from adding routes.
+     */
+    public static final String UNMATCHED = "UNMATCHED";
+
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    RouteStats route(String route) {
+        RouteStats stats = routes.get(route);
+        return stats != null ? stats : routes.computeIfAbsent(route, RouteStats::new);
+    }
+
+    void requestStarted() {
+        inFlight.increment();
+    }
+
+    void requestEnded() {
+        inFlight.decrement();
+    }
+
+    /**
+     * Requests received and not completed yet, including the ones not routed yet.
+     */
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return the routes in alphabetical order
+     */
+    public List<RouteSnapshot> snapshot() {
+        List<RouteSnapshot> snapshots = new ArrayList<>(routes.size());
+        for (RouteStats stats : routes.values()) {
+            snapshots.add(stats.snapshot());
+        }
+        snapshots.sort(Comparator.comparing(RouteSnapshot::getRoute));
+        return snapshots;
+    }
+
+    static final class RouteStats {
+
+        final String route;
+        final ConcurrentMap<Integer, StatusStats> statuses = new ConcurrentHashMap<>();
+        // responses committed and not completed yet, streams being written for the most part
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder bytesWritten = new LongAdder();
+
+        RouteStats(String route) {
+            this.route = route;
+        }
+
+        StatusStats status(int status) {
+            StatusStats stats = statuses.get(status);
+            return stats != null ? stats : statuses.computeIfAbsent(status, StatusStats::new);
+        }
+
+        RouteSnapshot snapshot() {
+            List<LatencySnapshot> latencies = new ArrayList<>(statuses.size());
+            for (StatusStats stats : statuses.values()) {
+                latencies.add(stats.snapshot());
+            }
+            latencies.sort(Comparator.comparingInt(LatencySnapshot::getStatus));
+            return new RouteSnapshot(route, inFlight.sum(), bytesWritten.sum(), latencies);
+        }
+    }
+
+    static final class StatusStats {
+
+        final int status;
+        // in microseconds, resized as needed so a long lived stream does not overflow it
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        final LongAdder totalMicros = new LongAdder();
+
+        // guarded by this, only touched by snapshots
+        final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        Histogram interval;
+
+        StatusStats(int status) {
+            this.status = status;
+        }
+
+        void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            recorder.recordValue(micros);
+            totalMicros.add(micros);
+        }
+
+        synchronized LatencySnapshot snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return new LatencySnapshot(status, total.getTotalCount(), totalMicros.sum(),
+                    total.getValueAtPercentile(50.0), total.getValueAtPercentile(99.0),
+                    total.getValueAtPercentile(99.9), total.getMaxValue());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.kds.reactive.metrics;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every exchange from the moment it enters the filter chain until its response has
+ * been written completely, or the client went away, and records it under the route and
+ * status of the response.
+ *
+ * The route is the pattern of the matched @RequestMapping, or the path of a matched router
+ * function as those do not expose their pattern. The response is wrapped to count the bytes
+ * written as they are written, so a stream shows up while it is still running.
+ *
+ * First in the chain, so requests turned away by AdmissionWebFilter are recorded as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RouteMetricsWebFilter implements WebFilter {
+
+    private final RouteMetrics metrics = new RouteMetrics();
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        MeteredResponse response = new MeteredResponse(exchange);
+        metrics.requestStarted();
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnError(e -> response.error = e)
+                .doFinally(signal -> {
+                    metrics.requestEnded();
+                    response.complete(signal, System.nanoTime() - start);
+                });
+    }
+
+    static String route(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof PathPattern) {
+            return ((PathPattern) pattern).getPatternString();
+        }
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) != null) {
+            return exchange.getRequest().getPath().pathWithinApplication().value();
+        }
+        return RouteMetrics.UNMATCHED;
+    }
+
+    final class MeteredResponse extends ServerHttpResponseDecorator {
+
+        final ServerWebExchange exchange;
+
+        // the handler is known by the time the response is committed
+        volatile RouteMetrics.RouteStats route;
+        volatile Throwable error;
+        // guarded by this
+        boolean completed;
+
+        MeteredResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            exchange.getResponse().beforeCommit(() -> {
+                committed();
+                return Mono.empty();
+            });
+        }
+
+        synchronized void committed() {
+            // an error is answered after the filter chain has completed
+            if (!completed) {
+                RouteMetrics.RouteStats stats = metrics.route(route(exchange));
+                stats.inFlight.increment();
+                route = stats;
+            }
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(buffers -> Flux.from(buffers).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            RouteMetrics.RouteStats stats = route;
+            if (stats != null) {
+                stats.bytesWritten.add(buffer.readableByteCount());
+            }
+        }
+
+        synchronized void complete(SignalType signal, long nanos) {
+            completed = true;
+            RouteMetrics.RouteStats stats = route;
+            if (stats != null) {
+                stats.inFlight.decrement();
+            } else {
+                // nothing was written yet, e.g. an error left to the exception handlers
+                stats = metrics.route(route(exchange));
+            }
+            stats.status(status(signal)).record(nanos);
+        }
+
+        private int status(SignalType signal) {
+            Throwable e = error;
+            if (signal == SignalType.ON_ERROR && e != null) {
+                return e instanceof ResponseStatusException ? ((ResponseStatusException) e).getStatus().value() : 500;
+            }
+            Integer status = getDelegate().getRawStatusCode();
+            return status != null ? status : 200;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.kds.reactive.metrics;
+
+import java.util.List;
+
+/**
+ * Counters of a route at the time of a snapshot.
+ */
+public class RouteSnapshot {
+
+    private final String route;
+    private final long inFlight;
+    private final long bytesWritten;
+    private final List<LatencySnapshot> statuses;
+
+    public RouteSnapshot(String route, long inFlight, long bytesWritten, List<LatencySnapshot> statuses) {
+        this.route = route;
+        this.inFlight = inFlight;
+        this.bytesWritten = bytesWritten;
+        this.statuses = statuses;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Responses started and not completed yet.
+     */
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public List<LatencySnapshot> getStatuses() {
+        return statuses;
+    }
+}
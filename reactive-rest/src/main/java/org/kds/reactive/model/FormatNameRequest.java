@@ -21,6 +21,9 @@ public class FormatNameRequest {
     @NotBlank(message = "Last name cannot be empty")
     private String lastName;
 
+    // name of the template to format with, the default one when absent
+    private String template;
+
     public String getTitle() {
         return title;
     }
@@ -36,4 +39,28 @@ public class FormatNameRequest {
     public String getLastName() {
         return lastName;
     }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public void setMiddleName(String middleName) {
+        this.middleName = middleName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public void setTemplate(String template) {
+        this.template = template;
+    }
 }
@@ -0,0 +1,608 @@
+package org.kds.reactive.scheduler;
+
+import org.kds.reactive.hardcore.MpscLinkedQueue;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * A Scheduler keeping its delayed tasks in a hierarchical hashed timing wheel instead of the
+ * priority queue of a ScheduledThreadPoolExecutor.
+ *
+ * There are four wheels of 256 slots, a slot of the first one spans one tick, a slot of the
+ * next one a whole turn of the previous one. A task lands in the slot of the finest wheel
+ * that can hold its deadline and moves down to a finer wheel when the slot it sits in comes
+ * up (cascading), so both scheduling and cancelling are O(1) whatever the number of pending
+ * tasks.
+ *
+ * Only the timer thread touches the wheels, callers hand new and cancelled timeouts over
+ * through MpscLinkedQueues. Every tick the timer thread collects all the expired tasks and
+ * passes them in batches to the worker pool, which runs them.
+ */
+public class TimingWheelScheduler implements Scheduler {
+
+    static final int LEVELS = 4;
+    static final int WHEEL_BITS = 8;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    // expired tasks handed to a worker thread at once
+    static final int BATCH_SIZE = 256;
+    // bounds the work of a single tick when a burst of timeouts is being added
+    static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    final long tickNanos;
+    final long startNanos;
+    final ExecutorService executor;
+    final Thread timerThread;
+
+    final MpscLinkedQueue<Timeout> added = new MpscLinkedQueue<>();
+    final MpscLinkedQueue<Timeout> cancelled = new MpscLinkedQueue<>();
+
+    // timer thread only
+    final Bucket[][] wheels;
+    long currentTick;
+
+    volatile boolean shutdown;
+
+    /**
+     * @param tick    resolution of the timer, a task never runs before its delay but may run
+     *                up to one tick after it
+     * @param workers threads running the expired tasks
+     */
+    public TimingWheelScheduler(String name, Duration tick, int workers) {
+        if (tick.isZero() || tick.isNegative()) {
+            throw new IllegalArgumentException("tick must be positive but was " + tick);
+        }
+        this.tickNanos = tick.toNanos();
+        this.wheels = new Bucket[LEVELS][WHEEL_SIZE];
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> daemon(r, name + "-" + count.incrementAndGet()));
+
+        this.startNanos = System.nanoTime();
+        this.timerThread = daemon(this::runTimer, name + "-timer");
+        this.timerThread.start();
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        Timeout timeout = new Timeout(this, task, 0L);
+        execute(timeout);
+        return timeout;
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayNanos = unit.toNanos(delay);
+        if (delayNanos <= 0) {
+            return schedule(task);
+        }
+        if (shutdown) {
+            throw Exceptions.failWithRejected();
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        // round up, a task must not run before its delay has passed
+        long deadline = (elapsed + delayNanos + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(this, task, deadline);
+        added.offer(timeout);
+        return timeout;
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask periodic = new PeriodicTask(task, unit.toNanos(period),
+                (r, delayNanos) -> schedule(r, delayNanos, TimeUnit.NANOSECONDS));
+        periodic.start(unit.toNanos(initialDelay));
+        return periodic;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new WheelWorker(this);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return shutdown;
+    }
+
+    @Override
+    public void dispose() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        LockSupport.unpark(timerThread);
+        executor.shutdownNow();
+    }
+
+    void execute(Runnable task) {
+        if (shutdown) {
+            throw Exceptions.failWithRejected();
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw Exceptions.failWithRejected(e);
+        }
+    }
+
+    // ------------------------------------------------------------------ timer thread
+
+    void runTimer() {
+        List<Timeout> expired = new ArrayList<>();
+        while (!shutdown) {
+            long tickDeadline = startNanos + (currentTick + 1) * tickNanos;
+            long sleep = tickDeadline - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            // when behind, the ticks are processed back to back until caught up
+            currentTick++;
+
+            transferAdded(expired);
+            removeCancelled();
+            cascade();
+            expire(wheels[0][(int) (currentTick & WHEEL_MASK)], expired);
+            dispatch(expired);
+        }
+    }
+
+    private void transferAdded(List<Timeout> expired) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state == Timeout.PENDING) {
+                place(timeout, expired);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        for (;;) {
+            Timeout timeout = cancelled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            timeout.task = null;
+        }
+    }
+
+    // moves the content of the coarser slots coming up this tick down to the finer wheels
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)];
+            Timeout timeout = bucket.detach();
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                place(timeout, null);
+                timeout = next;
+            }
+        }
+    }
+
+    private void expire(Bucket bucket, List<Timeout> expired) {
+        Timeout timeout = bucket.detach();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            place(timeout, expired);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts the timeout in the finest wheel able to hold it, or in expired when due. Called
+     * with a null list while cascading, nothing can be due there before this tick's slot
+     * of the first wheel is expired.
+     */
+    private void place(Timeout timeout, List<Timeout> expired) {
+        long delta = timeout.deadline - currentTick;
+        if (delta <= 0 && expired != null) {
+            timeout.bucket = null;
+            expired.add(timeout);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        long slotTick = Math.max(timeout.deadline, currentTick);
+        wheels[level][(int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+    }
+
+    private void dispatch(List<Timeout> expired) {
+        int size = expired.size();
+        for (int from = 0; from < size; from += BATCH_SIZE) {
+            Timeout[] batch = expired.subList(from, Math.min(from + BATCH_SIZE, size)).toArray(new Timeout[0]);
+            try {
+                executor.execute(() -> {
+                    for (Timeout timeout : batch) {
+                        timeout.run();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // disposed while dispatching
+                break;
+            }
+        }
+        expired.clear();
+    }
+
+    static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            Exceptions.throwIfJvmFatal(e);
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    // ------------------------------------------------------------------ wheel entries
+
+    /**
+     * A slot of a wheel, an intrusive doubly linked list so a cancelled timeout is unlinked
+     * in O(1).
+     */
+    static final class Bucket {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        Timeout detach() {
+            Timeout first = head;
+            for (Timeout t = first; t != null; t = t.next) {
+                t.bucket = null;
+            }
+            head = tail = null;
+            return first;
+        }
+    }
+
+    static final class Timeout implements Runnable, Disposable {
+
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int DONE = 2;
+
+        final TimingWheelScheduler scheduler;
+        final long deadline;
+        Runnable task;
+
+        volatile int state;
+        static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        // timer thread only
+        Timeout prev;
+        Timeout next;
+        Bucket bucket;
+
+        Timeout(TimingWheelScheduler scheduler, Runnable task, long deadline) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            if (STATE.compareAndSet(this, PENDING, DONE)) {
+                Runnable t = task;
+                task = null;
+                runSafely(t);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                // the timer thread unlinks it from its bucket on the next tick
+                scheduler.cancelled.offer(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return state != PENDING;
+        }
+    }
+
+    /**
+     * Runs at a fixed rate by scheduling itself again after each run, the first failure
+     * stops it.
+     */
+    static final class PeriodicTask implements Runnable, Disposable {
+
+        final Runnable task;
+        final long periodNanos;
+        final BiFunction<Runnable, Long, Disposable> scheduler;
+
+        long nextNanos;
+
+        volatile Disposable current;
+        volatile boolean disposed;
+
+        PeriodicTask(Runnable task, long periodNanos, BiFunction<Runnable, Long, Disposable> scheduler) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.scheduler = scheduler;
+        }
+
+        void start(long initialDelayNanos) {
+            nextNanos = System.nanoTime() + initialDelayNanos;
+            reschedule(initialDelayNanos);
+        }
+
+        @Override
+        public void run() {
+            if (disposed) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                dispose();
+                Exceptions.throwIfJvmFatal(e);
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                return;
+            }
+            nextNanos += periodNanos;
+            reschedule(Math.max(0L, nextNanos - System.nanoTime()));
+        }
+
+        private void reschedule(long delayNanos) {
+            if (disposed) {
+                return;
+            }
+            try {
+                current = scheduler.apply(this, delayNanos);
+            } catch (RejectedExecutionException e) {
+                disposed = true;
+                return;
+            }
+            if (disposed) {
+                current.dispose();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Disposable d = current;
+            if (d != null) {
+                d.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    // ------------------------------------------------------------------ worker
+
+    /**
+     * Runs its tasks one at a time in submission order, the delayed ones join the queue
+     * when their timeout fires.
+     */
+    static final class WheelWorker implements Worker, Runnable {
+
+        final TimingWheelScheduler scheduler;
+        final MpscLinkedQueue<WorkerTask> queue = new MpscLinkedQueue<>();
+        final Disposable.Composite tasks = Disposables.composite();
+
+        volatile int wip;
+        static final AtomicIntegerFieldUpdater<WheelWorker> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(WheelWorker.class, "wip");
+
+        volatile boolean disposed;
+
+        WheelWorker(TimingWheelScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            WorkerTask workerTask = track(task);
+            enqueue(workerTask);
+            return workerTask;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            if (unit.toNanos(delay) <= 0) {
+                return schedule(task);
+            }
+            WorkerTask workerTask = track(task);
+            workerTask.timer = scheduler.schedule(() -> enqueue(workerTask), delay, unit);
+            return workerTask;
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            if (disposed) {
+                throw Exceptions.failWithRejected();
+            }
+            PeriodicTask periodic = new PeriodicTask(task, unit.toNanos(period),
+                    (r, delayNanos) -> schedule(r, delayNanos, TimeUnit.NANOSECONDS));
+            if (!tasks.add(periodic)) {
+                throw Exceptions.failWithRejected();
+            }
+            periodic.start(unit.toNanos(initialDelay));
+            return periodic;
+        }
+
+        private WorkerTask track(Runnable task) {
+            WorkerTask workerTask = new WorkerTask(task, this);
+            if (disposed || !tasks.add(workerTask)) {
+                throw Exceptions.failWithRejected();
+            }
+            return workerTask;
+        }
+
+        void enqueue(WorkerTask task) {
+            queue.offer(task);
+            if (WIP.getAndIncrement(this) == 0) {
+                try {
+                    scheduler.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // the scheduler is gone, the queue is dropped with the worker
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        queue.clear();
+                        break;
+                    }
+                    WorkerTask task = queue.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    task.run();
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            tasks.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class WorkerTask implements Runnable, Disposable {
+
+        final Runnable task;
+        final WheelWorker worker;
+
+        // the pending timeout of a delayed task
+        volatile Disposable timer;
+
+        volatile int state;
+        static final AtomicIntegerFieldUpdater<WorkerTask> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WorkerTask.class, "state");
+
+        WorkerTask(Runnable task, WheelWorker worker) {
+            this.task = task;
+            this.worker = worker;
+        }
+
+        @Override
+        public void run() {
+            if (STATE.compareAndSet(this, Timeout.PENDING, Timeout.DONE)) {
+                try {
+                    runSafely(task);
+                } finally {
+                    worker.tasks.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (STATE.compareAndSet(this, Timeout.PENDING, Timeout.CANCELLED)) {
+                Disposable t = timer;
+                if (t != null) {
+                    t.dispose();
+                }
+                worker.tasks.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return state != Timeout.PENDING;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.kds.reactive.stream;
+
+/**
+ * What a streaming endpoint does with the elements a slow client is not ready for.
+ *
+ * The client is ready when Reactor Netty requests more, which only happens while the
+ * channel is writable, so all of these kick in once the socket buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Keep the newest elements up to the capacity, dropping the oldest ones.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Keep only the most recent element.
+     */
+    KEEP_LATEST,
+
+    /**
+     * Buffer up to the capacity, dropping the new elements beyond it.
+     */
+    BUFFER,
+
+    /**
+     * Buffer up to the capacity, then end the response of the lagging client.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,29 @@
+package org.kds.reactive.stream;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+
+/**
+ * A single interval shared by every subscriber instead of a timer task per subscriber.
+ *
+ * The interval is started by the first subscriber and cancelled once the last one has
+ * left, a later subscriber starts it again from zero. The latest tick is replayed, so a
+ * subscriber joining mid-stream sees the current sequence number straight away and then
+ * follows the shared sequence.
+ */
+public final class SharedTicker {
+
+    private final Flux<Long> ticks;
+
+    public SharedTicker(Duration period, Scheduler scheduler) {
+        this.ticks = Flux.interval(period, scheduler)
+                .replay(1)
+                .refCount();
+    }
+
+    public Flux<Long> ticks() {
+        return ticks;
+    }
+}
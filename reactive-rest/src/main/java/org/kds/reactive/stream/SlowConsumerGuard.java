@@ -0,0 +1,125 @@
+package org.kds.reactive.stream;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies an OverflowPolicy to every connection of a streaming endpoint and keeps the
+ * endpoint's counters.
+ *
+ * Each connection gets a buffer of at most capacity elements, so a slow client can no
+ * longer pile up an unbounded backlog on the heap. A connection counts as lagging from
+ * the moment it loses an element until it asks for more again.
+ */
+public class SlowConsumerGuard {
+
+    private final String name;
+    private final OverflowPolicy policy;
+    private final int capacity;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+    private final AtomicInteger lagging = new AtomicInteger();
+
+    public SlowConsumerGuard(String name, OverflowPolicy policy, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        this.name = name;
+        this.policy = policy;
+        this.capacity = capacity;
+    }
+
+    public <T> Flux<T> apply(Flux<T> source) {
+        return Flux.defer(() -> {
+            Connection connection = new Connection();
+            Flux<T> guarded;
+            switch (policy) {
+                case DROP_OLDEST:
+                    guarded = source.onBackpressureBuffer(capacity, e -> connection.dropped(), BufferOverflowStrategy.DROP_OLDEST);
+                    break;
+                case KEEP_LATEST:
+                    guarded = source.onBackpressureBuffer(1, e -> connection.dropped(), BufferOverflowStrategy.DROP_OLDEST);
+                    break;
+                case BUFFER:
+                    guarded = source.onBackpressureBuffer(capacity, e -> connection.dropped(), BufferOverflowStrategy.DROP_LATEST);
+                    break;
+                case DISCONNECT:
+                    guarded = source.onBackpressureBuffer(capacity, e -> connection.disconnected(), BufferOverflowStrategy.ERROR)
+                            // end the response cleanly rather than failing it
+                            .onErrorResume(Exceptions::isOverflow, e -> Mono.empty());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown policy " + policy);
+            }
+            return guarded
+                    .doOnRequest(n -> connection.caughtUp())
+                    .doFinally(signal -> connection.caughtUp());
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return elements lost by slow clients so far
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return connections ended by the DISCONNECT policy so far
+     */
+    public long getDisconnected() {
+        return disconnected.sum();
+    }
+
+    /**
+     * @return connections currently behind
+     */
+    public int getLagging() {
+        return lagging.get();
+    }
+
+    // lagging flag of a single connection
+    private final class Connection extends AtomicBoolean {
+
+        void dropped() {
+            dropped.increment();
+            lag();
+        }
+
+        void disconnected() {
+            disconnected.increment();
+            lag();
+        }
+
+        void lag() {
+            if (compareAndSet(false, true)) {
+                lagging.incrementAndGet();
+            }
+        }
+
+        void caughtUp() {
+            if (compareAndSet(true, false)) {
+                lagging.decrementAndGet();
+            }
+        }
+    }
+}
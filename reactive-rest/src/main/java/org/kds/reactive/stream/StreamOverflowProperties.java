@@ -0,0 +1,103 @@
+package org.kds.reactive.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Overflow policy per streaming endpoint and the per connection write buffer of the server,
+ * for example
+ *
+ * <pre>
+ * stream:
+ *   overflow:
+ *     write-buffer-high-water-mark: 65536
+ *     endpoints:
+ *       fluxstream:
+ *         policy: KEEP_LATEST
+ *       finite-stream:
+ *         policy: DISCONNECT
+ *         capacity: 64
+ * </pre>
+ *
+ * An endpoint without an entry gets a bounded BUFFER of the default capacity. There is one
+ * guard per endpoint, its counters are reported on /internal/metrics.
+ */
+@ConfigurationProperties("stream.overflow")
+public class StreamOverflowProperties {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    // bytes queued on a connection before Netty marks the channel as not writable, and
+    // how far the queue has to drain before it is writable again
+    private int writeBufferHighWaterMark = 64 * 1024;
+    private int writeBufferLowWaterMark = 32 * 1024;
+
+    private final Map<String, SlowConsumerGuard> guards = new ConcurrentHashMap<>();
+
+    public SlowConsumerGuard guard(String endpoint) {
+        return guards.computeIfAbsent(endpoint, name -> {
+            Endpoint config = endpoints.getOrDefault(name, new Endpoint());
+            return new SlowConsumerGuard(name, config.getPolicy(), config.getCapacity());
+        });
+    }
+
+    /**
+     * The guards handed out so far.
+     */
+    public Collection<SlowConsumerGuard> guards() {
+        return new ArrayList<>(guards.values());
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public static class Endpoint {
+
+        private OverflowPolicy policy = OverflowPolicy.BUFFER;
+        private int capacity = DEFAULT_CAPACITY;
+
+        public OverflowPolicy getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(OverflowPolicy policy) {
+            this.policy = policy;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+}
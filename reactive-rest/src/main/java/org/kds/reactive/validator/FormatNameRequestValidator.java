@@ -0,0 +1,213 @@
+package org.kds.reactive.validator;
+
+import org.kds.reactive.model.Error;
+import org.kds.reactive.model.FormatNameRequest;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Validates FormatNameRequest against the constraints declared on its fields without going
+ * through the Bean Validation engine and without throwing.
+ *
+ * The annotations are read once and compiled into plain checks on the property values,
+ * a failed check directly yields an Error with the constraint's message. A property is
+ * handed over to Bean Validation when it carries a constraint that is not compiled here
+ * or uses groups. A message template is interpolated by Bean Validation the first time
+ * its constraint fails and reused from then on.
+ */
+public class FormatNameRequestValidator {
+
+    private static final Map<String, Function<FormatNameRequest, String>> ACCESSORS = new HashMap<>();
+
+    static {
+        ACCESSORS.put("title", FormatNameRequest::getTitle);
+        ACCESSORS.put("firstName", FormatNameRequest::getFirstName);
+        ACCESSORS.put("middleName", FormatNameRequest::getMiddleName);
+        ACCESSORS.put("lastName", FormatNameRequest::getLastName);
+        ACCESSORS.put("template", FormatNameRequest::getTemplate);
+    }
+
+    private final Validator fallback;
+    private final List<PropertyCheck> properties;
+
+    public FormatNameRequestValidator(Validator fallback) {
+        this.fallback = fallback;
+        this.properties = compile();
+    }
+
+    /**
+     * @return the errors in field declaration order, an empty list for a valid request
+     */
+    public List<Error> validate(FormatNameRequest request) {
+        List<Error> errors = null;
+        for (PropertyCheck property : properties) {
+            errors = property.validate(request, errors);
+        }
+        return errors == null ? Collections.emptyList() : errors;
+    }
+
+    private List<PropertyCheck> compile() {
+        List<PropertyCheck> compiled = new ArrayList<>();
+        for (Field field : FormatNameRequest.class.getDeclaredFields()) {
+            List<Check> checks = new ArrayList<>();
+            boolean delegate = false;
+
+            for (Annotation annotation : field.getDeclaredAnnotations()) {
+                if (!annotation.annotationType().isAnnotationPresent(Constraint.class)) {
+                    continue;
+                }
+                Check check = compile(annotation);
+                if (check == null) {
+                    delegate = true;
+                } else {
+                    checks.add(check);
+                }
+            }
+
+            Function<FormatNameRequest, String> accessor = ACCESSORS.get(field.getName());
+            if (checks.isEmpty() && !delegate) {
+                continue;
+            }
+            compiled.add(new PropertyCheck(field.getName(), accessor, checks.toArray(new Check[0]),
+                    delegate || accessor == null));
+        }
+        return compiled;
+    }
+
+    /**
+     * @return the compiled check, null when the constraint has to be left to Bean Validation
+     */
+    private static Check compile(Annotation annotation) {
+        if (((Class<?>[]) attribute(annotation, "groups")).length != 0) {
+            return null;
+        }
+        String message = (String) attribute(annotation, "message");
+
+        if (annotation instanceof NotNull) {
+            return new Check(value -> value != null, message);
+        }
+        if (annotation instanceof NotBlank) {
+            return new Check(value -> value != null && !value.trim().isEmpty(), message);
+        }
+        if (annotation instanceof Size) {
+            int min = ((Size) annotation).min();
+            int max = ((Size) annotation).max();
+            // null is valid, @NotNull takes care of it
+            return new Check(value -> value == null || (value.length() >= min && value.length() <= max), message);
+        }
+        if (annotation instanceof MustContainAt) {
+            AtValidator validator = new AtValidator();
+            validator.initialize((MustContainAt) annotation);
+            return new Check(value -> validator.isValid(value, null), message);
+        }
+        return null;
+    }
+
+    private static Object attribute(Annotation annotation, String name) {
+        try {
+            return annotation.annotationType().getMethod(name).invoke(annotation);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Constraint " + annotation + " has no " + name + " attribute", e);
+        }
+    }
+
+    private static final class Check {
+
+        final Predicate<String> predicate;
+        // message templates such as {javax.validation.constraints.NotNull.message} are only
+        // known once Bean Validation has interpolated them for a failed value
+        volatile String message;
+        // the interpolated template does not depend on the validated value
+        final boolean cacheable;
+
+        Check(Predicate<String> predicate, String message) {
+            this.predicate = predicate;
+            boolean template = message.indexOf('{') >= 0 || message.indexOf('$') >= 0;
+            this.message = template ? null : message;
+            this.cacheable = message.indexOf('$') < 0;
+        }
+    }
+
+    private final class PropertyCheck {
+
+        final String name;
+        final Function<FormatNameRequest, String> accessor;
+        final Check[] checks;
+        final boolean delegate;
+
+        PropertyCheck(String name, Function<FormatNameRequest, String> accessor, Check[] checks, boolean delegate) {
+            this.name = name;
+            this.accessor = accessor;
+            this.checks = checks;
+            this.delegate = delegate;
+        }
+
+        List<Error> validate(FormatNameRequest request, List<Error> errors) {
+            if (delegate) {
+                return validateProperty(request, errors, null);
+            }
+
+            String value = accessor.apply(request);
+            Check unresolved = null;
+            int failed = 0;
+            for (Check check : checks) {
+                if (!check.predicate.test(value)) {
+                    failed++;
+                    if (check.message == null) {
+                        unresolved = check;
+                    }
+                }
+            }
+            if (failed == 0) {
+                return errors;
+            }
+            if (unresolved != null) {
+                // the message can only be learnt when it is the sole violation of the property
+                return validateProperty(request, errors, failed == 1 && unresolved.cacheable ? unresolved : null);
+            }
+
+            if (errors == null) {
+                errors = new ArrayList<>(failed);
+            }
+            for (Check check : checks) {
+                if (!check.predicate.test(value)) {
+                    errors.add(new Error(name, check.message));
+                }
+            }
+            return errors;
+        }
+
+        private List<Error> validateProperty(FormatNameRequest request, List<Error> errors, Check resolve) {
+            Set<ConstraintViolation<FormatNameRequest>> violations = fallback.validateProperty(request, name);
+            if (violations.isEmpty()) {
+                return errors;
+            }
+            if (errors == null) {
+                errors = new ArrayList<>(violations.size());
+            }
+            for (ConstraintViolation<FormatNameRequest> violation : violations) {
+                errors.add(new Error(name, violation.getMessage()));
+                if (resolve != null && violations.size() == 1) {
+                    resolve.message = violation.getMessage();
+                }
+            }
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.kds.reactive.webclient;
+
+import io.netty.channel.ChannelOption;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a LoadProfile against a running server through a WebClient and measures it.
+ *
+ * The client runs on event loops and a connection pool of its own so it does not compete
+ * with a server started in the same JVM for the global reactor-netty resources. Bodies are
+ * read as raw buffers and released right away, nothing is decoded.
+ */
+public class LoadGenerator implements Disposable {
+
+    private final LoopResources loops;
+    private final ConnectionProvider connections;
+    private final WebClient webClient;
+    private final Scheduler pacer = Schedulers.newSingle("load-pacer", true);
+
+    public LoadGenerator(String baseUrl, int maxConnections) {
+        this.loops = LoopResources.create("load", Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+        this.connections = ConnectionProvider.builder("load")
+                .maxConnections(maxConnections)
+                // an open model queues for a connection rather than failing
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .keepAlive(true)
+                .tcpConfiguration(tcpClient -> tcpClient
+                        .runOn(loops)
+                        .option(ChannelOption.TCP_NODELAY, true));
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Runs the profile to its end, including the responses still outstanding then, and
+     * blocks meanwhile.
+     */
+    public LoadReport run(LoadProfile profile) {
+        Run run = new Run(profile);
+        if (profile.getModel() == LoadProfile.Model.OPEN) {
+            run.open();
+        } else {
+            run.closed();
+        }
+        return run.report();
+    }
+
+    @Override
+    public void dispose() {
+        pacer.dispose();
+        connections.dispose();
+        loops.dispose();
+    }
+
+    final class Run {
+
+        final LoadProfile profile;
+        final long start;
+        final long measureFrom;
+        final long end;
+
+        final Recorder latency = new Recorder(3);
+        final Recorder serviceTime = new Recorder(3);
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytesRead = new LongAdder();
+
+        Run(LoadProfile profile) {
+            this.profile = profile;
+            this.start = System.nanoTime();
+            this.measureFrom = start + profile.getWarmup().toNanos();
+            this.end = measureFrom + profile.getDuration().toNanos();
+        }
+
+        void open() {
+            long period = Math.max(1L, TimeUnit.SECONDS.toNanos(1) / profile.getRate());
+            Semaphore inFlight = new Semaphore(profile.getMaxInFlight());
+            long outstandingTimeout = profile.getTimeout().toNanos() * 2;
+
+            // the schedule stays fixed, a request sent late is still measured from its slot
+            for (long intended = start; intended < end; intended += period) {
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.acquireUninterruptibly();
+                request(intended)
+                        .doFinally(signal -> inFlight.release())
+                        .subscribe();
+            }
+            try {
+                inFlight.tryAcquire(profile.getMaxInFlight(), outstandingTimeout, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void closed() {
+            long pacing = profile.getPacing().toNanos();
+            Flux.range(0, profile.getUsers())
+                    .flatMap(user -> {
+                        long[] next = {start};
+                        return Mono.defer(() -> {
+                            long now = System.nanoTime();
+                            if (pacing == 0) {
+                                return request(now);
+                            }
+                            long intended = next[0];
+                            next[0] += pacing;
+                            long wait = intended - now;
+                            return wait > 0
+                                    ? Mono.delay(Duration.ofNanos(wait), pacer).then(request(intended))
+                                    : request(intended);
+                        }).repeat(() -> System.nanoTime() < end);
+                    }, profile.getUsers())
+                    .blockLast(profile.getWarmup().plus(profile.getDuration()).plus(profile.getTimeout()).multipliedBy(2));
+        }
+
+        Mono<Void> request(long intended) {
+            return Mono.defer(() -> {
+                long sent = System.nanoTime();
+                return exchange()
+                        .timeout(profile.getTimeout())
+                        .doOnSuccess(status -> done(intended, sent, status >= 200 && status < 300))
+                        .doOnError(e -> done(intended, sent, false))
+                        .onErrorResume(e -> Mono.empty())
+                        .then();
+            });
+        }
+
+        private Mono<Integer> exchange() {
+            WebClient.RequestBodySpec spec = webClient.method(profile.getMethod())
+                    .uri(profile.getPath())
+                    .accept(profile.getAccept());
+            WebClient.RequestHeadersSpec<?> request = profile.getBody() == null
+                    ? spec
+                    : spec.contentType(profile.getContentType()).bodyValue(profile.getBody());
+            return request.exchange()
+                    .flatMap(response -> response.bodyToFlux(DataBuffer.class)
+                            .doOnNext(buffer -> {
+                                bytesRead.add(buffer.readableByteCount());
+                                DataBufferUtils.release(buffer);
+                            })
+                            .then(Mono.fromCallable(response::rawStatusCode)));
+        }
+
+        private void done(long intended, long sent, boolean ok) {
+            long now = System.nanoTime();
+            // the warmup is left out, so is whatever was sent after the end
+            if (intended < measureFrom || intended >= end) {
+                return;
+            }
+            if (!ok) {
+                errors.increment();
+            } else if (now <= end) {
+                completed.increment();
+            }
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(now - intended));
+            serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sent));
+        }
+
+        LoadReport report() {
+            Histogram latencies = latency.getIntervalHistogram();
+            Histogram serviceTimes = serviceTime.getIntervalHistogram();
+            return new LoadReport(profile, profile.getDuration(), completed.sum(), errors.sum(), bytesRead.sum(),
+                    latencies, serviceTimes);
+        }
+    }
+}
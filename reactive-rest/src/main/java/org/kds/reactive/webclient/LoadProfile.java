@@ -0,0 +1,176 @@
+package org.kds.reactive.webclient;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+/**
+ * What LoadGenerator sends and how.
+ *
+ * An open model sends requests at a constant rate whatever the response times are, like
+ * independent clients would. A closed model has a fixed number of users each sending its
+ * next request once it got the previous response, optionally no more than one per pacing
+ * interval.
+ */
+public class LoadProfile {
+
+    public enum Model {
+        OPEN, CLOSED
+    }
+
+    private final Model model;
+    private final int rate;
+    private final int users;
+
+    private Duration pacing = Duration.ZERO;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration timeout = Duration.ofSeconds(30);
+    private int maxInFlight = 10_000;
+
+    private HttpMethod method = HttpMethod.GET;
+    private String path = "/flux";
+    private String body;
+    private MediaType contentType = MediaType.APPLICATION_JSON;
+    private MediaType accept = MediaType.ALL;
+
+    private LoadProfile(Model model, int rate, int users) {
+        this.model = model;
+        this.rate = rate;
+        this.users = users;
+    }
+
+    /**
+     * @param rate requests per second
+     */
+    public static LoadProfile open(int rate) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive but was " + rate);
+        }
+        return new LoadProfile(Model.OPEN, rate, 0);
+    }
+
+    public static LoadProfile closed(int users) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("users must be positive but was " + users);
+        }
+        return new LoadProfile(Model.CLOSED, 0, users);
+    }
+
+    /**
+     * Closed model only, the least time between two requests of a user. Without it a closed
+     * model can not correct for coordinated omission.
+     */
+    public LoadProfile pacing(Duration pacing) {
+        this.pacing = pacing;
+        return this;
+    }
+
+    /**
+     * How long requests are measured, after the warmup.
+     */
+    public LoadProfile duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * How long requests are sent but not measured.
+     */
+    public LoadProfile warmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    public LoadProfile timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Open model only, the generator waits for a response once this many are outstanding.
+     * The wait is part of the corrected latency of the delayed requests.
+     */
+    public LoadProfile maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public LoadProfile request(HttpMethod method, String path) {
+        this.method = method;
+        this.path = path;
+        return this;
+    }
+
+    public LoadProfile body(String body, MediaType contentType) {
+        this.body = body;
+        this.contentType = contentType;
+        return this;
+    }
+
+    public LoadProfile accept(MediaType accept) {
+        this.accept = accept;
+        return this;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getPacing() {
+        return pacing;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public MediaType getAccept() {
+        return accept;
+    }
+
+    @Override
+    public String toString() {
+        String load = model == Model.OPEN ? rate + " req/s" : users + " users"
+                + (pacing.isZero() ? "" : " paced at " + pacing.toMillis() + "ms");
+        return model + " " + load + ", " + method + " " + path + " for " + duration.getSeconds()
+                + "s after " + warmup.getSeconds() + "s of warmup";
+    }
+}
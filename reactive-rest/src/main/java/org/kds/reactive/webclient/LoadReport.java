@@ -0,0 +1,105 @@
+package org.kds.reactive.webclient;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a LoadGenerator run, latencies are recorded in microseconds.
+ *
+ * The latency of a request is counted from the time it was meant to be sent, which corrects
+ * for coordinated omission: a stalled server delays the requests queued behind it and that
+ * delay is part of what their clients see. The service time is counted from the time the
+ * request was actually sent, as a load tool waiting on the server would measure it.
+ */
+public class LoadReport {
+
+    private final LoadProfile profile;
+    private final Duration measured;
+    private final long completed;
+    private final long errors;
+    private final long bytesRead;
+    private final Histogram latency;
+    private final Histogram serviceTime;
+
+    LoadReport(LoadProfile profile, Duration measured, long completed, long errors, long bytesRead,
+               Histogram latency, Histogram serviceTime) {
+        this.profile = profile;
+        this.measured = measured;
+        this.completed = completed;
+        this.errors = errors;
+        this.bytesRead = bytesRead;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Requests answered with a 2xx status during the measurement.
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Requests answered with another status, failed or timed out during the measurement.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Successful requests per second.
+     */
+    public double getThroughput() {
+        return completed * 1_000_000_000.0 / measured.toNanos();
+    }
+
+    /**
+     * @return the corrected latency in milliseconds at the given percentile, 0 to 100
+     */
+    public double getLatencyMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * @return the uncorrected service time in milliseconds at the given percentile, 0 to 100
+     */
+    public double getServiceTimeMillis(double percentile) {
+        return serviceTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(profile).append('\n');
+        out.append(String.format("  throughput  %.1f req/s, %d ok, %d errors, %d bytes read%n",
+                getThroughput(), completed, errors, bytesRead));
+        out.append(String.format("  %-12s %10s %10s %10s %10s %10s%n", "ms", "p50", "p90", "p99", "p99.9", "max"));
+        row(out, "latency", latency);
+        row(out, "service", serviceTime);
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String name, Histogram histogram) {
+        out.append(String.format("  %-12s %10.3f %10.3f %10.3f %10.3f %10.3f%n", name,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+    }
+}
@@ -0,0 +1,96 @@
+package org.kds.reactive.webclient;
+
+import org.kds.reactive.ReactiveRestApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+/**
+ * Command line load test, starts ReactiveRestApplication on a random port unless a --target
+ * is given, runs the load and prints the report. Exits with 1 when the report misses
+ * --min-throughput (req/s) or --max-p99 (ms, corrected) so a release build can fail on it.
+ *
+ * gradlew loadTest -PloadArgs="--model=open --rate=2000 --path=/flux --duration=60s --min-throughput=1900"
+ *
+ * The other options are --users and --pacing for the closed model, --warmup, --timeout,
+ * --max-in-flight, --connections, --method, --body, --content-type and --accept. All the
+ * arguments are passed on to the application as well, --stream.timer=wheel works.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+
+        ConfigurableApplicationContext application = null;
+        String target = options.getProperty("target");
+        if (target == null) {
+            application = new SpringApplicationBuilder(ReactiveRestApplication.class)
+                    .properties("server.port=0")
+                    .run(args);
+            target = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+        }
+
+        LoadReport report;
+        LoadGenerator generator = new LoadGenerator(target, intOption(options, "connections", 512));
+        try {
+            report = generator.run(profile(options));
+        } finally {
+            generator.dispose();
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.out.println(report);
+
+        boolean failed = false;
+        String minThroughput = options.getProperty("min-throughput");
+        if (minThroughput != null && report.getThroughput() < Double.parseDouble(minThroughput)) {
+            System.out.println("FAILED throughput " + report.getThroughput() + " req/s below " + minThroughput);
+            failed = true;
+        }
+        String maxP99 = options.getProperty("max-p99");
+        if (maxP99 != null && report.getLatencyMillis(99.0) > Double.parseDouble(maxP99)) {
+            System.out.println("FAILED p99 latency " + report.getLatencyMillis(99.0) + " ms above " + maxP99);
+            failed = true;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    static LoadProfile profile(SimpleCommandLinePropertySource options) {
+        String model = option(options, "model", "closed");
+        LoadProfile profile;
+        if ("open".equals(model)) {
+            profile = LoadProfile.open(intOption(options, "rate", 1000));
+        } else if ("closed".equals(model)) {
+            profile = LoadProfile.closed(intOption(options, "users", 64))
+                    .pacing(DurationStyle.detectAndParse(option(options, "pacing", "0ms")));
+        } else {
+            throw new IllegalArgumentException("Unknown model " + model + ", expected open or closed");
+        }
+
+        profile.duration(DurationStyle.detectAndParse(option(options, "duration", "30s")))
+                .warmup(DurationStyle.detectAndParse(option(options, "warmup", "5s")))
+                .timeout(DurationStyle.detectAndParse(option(options, "timeout", "30s")))
+                .maxInFlight(intOption(options, "max-in-flight", 10_000))
+                .request(HttpMethod.resolve(option(options, "method", "GET")), option(options, "path", "/flux"))
+                .accept(MediaType.parseMediaType(option(options, "accept", MediaType.ALL_VALUE)));
+        String body = options.getProperty("body");
+        if (body != null) {
+            profile.body(body, MediaType.parseMediaType(option(options, "content-type", MediaType.APPLICATION_JSON_VALUE)));
+        }
+        return profile;
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static int intOption(SimpleCommandLinePropertySource options, String name, int defaultValue) {
+        return Integer.parseInt(option(options, name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,118 @@
+package org.kds.reactive.webclient.limit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the calls a WebClient has in flight at a limit that follows the measured latency and
+ * failures of the dependency, a call over the limit fails right away with a
+ * LimitExceededException instead of adding to the pile of requests waiting on a slow
+ * dependency.
+ *
+ * A call is in flight from sending its request until its response status and headers are
+ * received, its RTT is that time. A call failing, answered with 429 or 503 counts as dropped,
+ * and so does a call cancelled before its response arrived: a caller's timeout() reaches the
+ * filter as a cancel, not as an error.
+ *
+ * <pre>
+ * WebClient.builder().filter(new AdaptiveConcurrencyFilter("accounts", 20, new VegasLimit(1, 200, 1000)))
+ * </pre>
+ */
+public class AdaptiveConcurrencyFilter implements ExchangeFilterFunction {
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+
+    private volatile int limit;
+
+    private volatile int inFlight;
+    private static final AtomicIntegerFieldUpdater<AdaptiveConcurrencyFilter> IN_FLIGHT =
+            AtomicIntegerFieldUpdater.newUpdater(AdaptiveConcurrencyFilter.class, "inFlight");
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyFilter(String name, int initialLimit, LimitAlgorithm algorithm) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            int current = tryAcquire();
+            if (current < 0) {
+                rejected.increment();
+                return Mono.error(new LimitExceededException(name, limit));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean sampled = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnSuccess(response -> sample(sampled, start, current, response == null || dropped(response)))
+                    .doOnError(e -> sample(sampled, start, current, true))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            sample(sampled, start, current, true);
+                        }
+                        IN_FLIGHT.decrementAndGet(this);
+                    });
+        });
+    }
+
+    // the calls in flight including the new one, -1 when at the limit
+    private int tryAcquire() {
+        for (;;) {
+            int current = inFlight;
+            if (current >= limit) {
+                return -1;
+            }
+            if (IN_FLIGHT.compareAndSet(this, current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private static boolean dropped(ClientResponse response) {
+        int status = response.rawStatusCode();
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    // once per call, a cancel may race the response
+    private void sample(AtomicBoolean sampled, long start, int inFlightAtStart, boolean dropped) {
+        if (sampled.compareAndSet(false, true)) {
+            sample(start, inFlightAtStart, dropped);
+        }
+    }
+
+    private synchronized void sample(long start, int inFlightAtStart, boolean dropped) {
+        limit = Math.max(1, algorithm.update(limit, System.nanoTime() - start, inFlightAtStart, dropped));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Calls failed with a LimitExceededException.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
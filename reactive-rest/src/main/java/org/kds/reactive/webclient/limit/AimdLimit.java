@@ -0,0 +1,33 @@
+package org.kds.reactive.webclient.limit;
+
+/**
+ * Additive increase, multiplicative decrease: one more for every successful call made while
+ * at least half the limit was used, backoffRatio times the limit for a dropped one.
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    public AimdLimit(int minLimit, int maxLimit, double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1 but was " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            return Math.max(minLimit, (int) (limit * backoffRatio));
+        }
+        // a call made far below the limit says nothing about whether the limit is too low
+        if (inFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
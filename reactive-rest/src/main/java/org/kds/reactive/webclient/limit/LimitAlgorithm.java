@@ -0,0 +1,17 @@
+package org.kds.reactive.webclient.limit;
+
+/**
+ * Decides the next concurrency limit from each completed call. Implementations keep state
+ * of their own and are called by one thread at a time.
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * @param limit    the current limit
+     * @param rttNanos time from sending the request to receiving the response
+     * @param inFlight calls in flight when this one was sent, itself included
+     * @param dropped  whether the call failed, timed out or was turned away by the dependency
+     * @return the new limit
+     */
+    int update(int limit, long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,13 @@
+package org.kds.reactive.webclient.limit;
+
+import org.springframework.web.reactive.function.client.WebClientException;
+
+/**
+ * Raised instead of sending a request when the calls in flight are at the limit.
+ */
+public class LimitExceededException extends WebClientException {
+
+    public LimitExceededException(String name, int limit) {
+        super(name + " is at its concurrency limit of " + limit);
+    }
+}
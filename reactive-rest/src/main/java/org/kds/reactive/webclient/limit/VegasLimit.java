@@ -0,0 +1,56 @@
+package org.kds.reactive.webclient.limit;
+
+/**
+ * Delay based limit after TCP Vegas. The smallest RTT seen is taken as the RTT without
+ * queueing, limit * (1 - rttNoLoad / rtt) then estimates how many calls are queued at the
+ * dependency. Few queued calls raise the limit, many lower it, each by about log10(limit),
+ * so the limit settles where the dependency starts queueing instead of where it fails.
+ *
+ * The RTT without load is measured again every probeInterval calls, otherwise a lasting
+ * change of the dependency's latency would be taken for queueing forever.
+ */
+public class VegasLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    // caller's thread confined, see LimitAlgorithm
+    private long rttNoLoad;
+    private int samples;
+
+    public VegasLimit(int minLimit, int maxLimit, int probeInterval) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (++samples >= probeInterval) {
+            samples = 0;
+            rttNoLoad = 0;
+        }
+        if (dropped) {
+            return Math.max(minLimit, limit / 2);
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return limit;
+        }
+        // nothing to learn about queueing from a call made with the limit barely used
+        if (inFlight * 2 < limit) {
+            return limit;
+        }
+
+        int log = Math.max(1, (int) Math.log10(limit));
+        int queued = (int) Math.ceil(limit * (1 - (double) rttNoLoad / rttNanos));
+        if (queued <= 3 * log) {
+            return Math.min(maxLimit, limit + log);
+        }
+        if (queued > 6 * log) {
+            return Math.max(minLimit, limit - log);
+        }
+        return limit;
+    }
+}
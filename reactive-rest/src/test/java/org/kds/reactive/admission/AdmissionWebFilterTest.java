@@ -0,0 +1,127 @@
+package org.kds.reactive.admission;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionWebFilterTest {
+
+    private static final WebFilterChain OK = exchange -> Mono.empty();
+
+    @Test
+    public void shouldRejectRequestsOverTheRouteRateWithRetryAfter() {
+        AdmissionWebFilter filter = filter("format", route("/format", 0.5, 2, 0, 0));
+
+        assertThat(status(filter, "/format", "a")).isNull();
+        assertThat(status(filter, "/format", "b")).isNull();
+
+        MockServerWebExchange rejected = exchange("/format", "c");
+        filter.filter(rejected, OK).block();
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // one token every 2 seconds
+        assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(filter.rejected("format")).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldLimitEveryClientOnItsOwn() {
+        AdmissionWebFilter filter = filter("format", route("/format", 0, 1, 0.1, 0));
+
+        assertThat(status(filter, "/format", "a")).isNull();
+        assertThat(status(filter, "/format", "a")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(status(filter, "/format", "b")).isNull();
+    }
+
+    @Test
+    public void shouldIgnoreTheClientHeaderUnlessConfigured() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getRoutes().put("format", route("/format", 0, 1, 0.1, 0));
+        AdmissionWebFilter filter = new AdmissionWebFilter(properties);
+
+        assertThat(status(filter, from("/format", "10.0.0.1", "a"))).isNull();
+        // a new header value does not make a new client
+        assertThat(status(filter, from("/format", "10.0.0.1", "b"))).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(status(filter, from("/format", "10.0.0.2", "b"))).isNull();
+    }
+
+    @Test
+    public void routeRejectionShouldNotSpendTheClientToken() {
+        // one route token a second, one client token every 10 seconds
+        RouteLimiter limiter = new RouteLimiter("format", null, route("/format", 1, 1, 0.1, 0), 10);
+        long now = 0L;
+
+        assertThat(limiter.tryAcquire("a", now)).isZero();
+        assertThat(limiter.tryAcquire("b", now)).isPositive();
+
+        // the route has a token again and b still has its own
+        assertThat(limiter.tryAcquire("b", now + TimeUnit.SECONDS.toNanos(1))).isZero();
+    }
+
+    @Test
+    public void shouldShedRequestsOverTheInFlightLimit() {
+        AdmissionWebFilter filter = filter("flux", route("/flux/**", 0, 1, 0, 1));
+
+        Disposable pending = filter.filter(exchange("/flux/finite/stream", "a"), exchange -> Mono.never()).subscribe();
+        assertThat(status(filter, "/flux", "b")).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(filter.shed("flux")).isEqualTo(1L);
+
+        pending.dispose();
+        assertThat(status(filter, "/flux", "b")).isNull();
+    }
+
+    @Test
+    public void shouldLetUnmatchedRoutesThrough() {
+        AdmissionWebFilter filter = filter("format", route("/format", 0.001, 1, 0, 0));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(status(filter, "/flux", "a")).isNull();
+        }
+    }
+
+    private static AdmissionProperties.Route route(String pattern, double rate, int burst, double clientRate, int maxInFlight) {
+        AdmissionProperties.Route route = new AdmissionProperties.Route();
+        route.setPattern(pattern);
+        route.setRate(rate);
+        route.setBurst(burst);
+        route.setClientRate(clientRate);
+        route.setMaxInFlight(maxInFlight);
+        return route;
+    }
+
+    private static AdmissionWebFilter filter(String name, AdmissionProperties.Route route) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setClientHeader("X-Client-Id");
+        properties.getRoutes().put(name, route);
+        return new AdmissionWebFilter(properties);
+    }
+
+    private static MockServerWebExchange exchange(String path, String client) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header("X-Client-Id", client));
+    }
+
+    private static MockServerWebExchange from(String path, String address, String client) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress(address, 40_000))
+                .header("X-Client-Id", client));
+    }
+
+    // null when the request was let through
+    private static HttpStatus status(AdmissionWebFilter filter, String path, String client) {
+        return status(filter, exchange(path, client));
+    }
+
+    private static HttpStatus status(AdmissionWebFilter filter, MockServerWebExchange exchange) {
+        filter.filter(exchange, OK).block();
+        return exchange.getResponse().getStatusCode();
+    }
+}
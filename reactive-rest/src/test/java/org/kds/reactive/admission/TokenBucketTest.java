@@ -0,0 +1,80 @@
+package org.kds.reactive.admission;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void shouldAdmitABurstThenOneRequestPerInterval() {
+        // one token every 100ms, 3 at once
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 1_000 * MS;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(100 * MS);
+
+        assertThat(bucket.tryAcquire(now + 60 * MS)).isEqualTo(40 * MS);
+        assertThat(bucket.tryAcquire(now + 100 * MS)).isZero();
+        assertThat(bucket.tryAcquire(now + 100 * MS)).isEqualTo(100 * MS);
+    }
+
+    @Test
+    public void releaseShouldGiveTheTokenBack() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = 1_000 * MS;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        bucket.release();
+        assertThat(bucket.isFull(now)).isTrue();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(100 * MS);
+    }
+
+    @Test
+    public void shouldRefillUpToTheBurstOnly() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = -5_000 * MS;
+
+        assertThat(bucket.isFull(now)).isTrue();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.isFull(now)).isFalse();
+
+        long later = now + 10_000 * MS;
+        assertThat(bucket.isFull(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    public void concurrentCallersShouldShareTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 1000);
+        long now = System.nanoTime();
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int t = 0; t < 8; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(admitted.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,154 @@
+package org.kds.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.kds.reactive.config.CodecConfig;
+import org.kds.reactive.model.FormatNameRequest;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.codec.CodecProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FormatNameRequestDecoderTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(FormatNameRequest.class);
+
+    private final FormatNameRequestDecoder decoder = new FormatNameRequestDecoder();
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    public void shouldOnlyClaimTheRequestModel() {
+        assertThat(decoder.canDecode(TYPE, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(TYPE, CodecConfig.APPLICATION_NDJSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(TYPE, MediaType.APPLICATION_XML)).isFalse();
+    }
+
+    @Test
+    public void shouldDecodeARequestSplitAtEveryByte() {
+        String json = "{ \"title\" : \"Mr\", \"firstName\":\"J\\u00f6hn\", \"middleName\":\"J@ \\\"q\\\" \u4e2d \ud83d\ude00\","
+                + " \"lastName\":\"Doe\", \"template\":null, \"age\": 42, \"tags\": [\"a\", {\"b\": \"}\"}] }";
+
+        StepVerifier.create(decoder.decodeToMono(bytes(json, 1), TYPE, MediaType.APPLICATION_JSON, null))
+                .assertNext(request -> {
+                    assertThat(request.getTitle()).isEqualTo("Mr");
+                    assertThat(request.getFirstName()).isEqualTo("J\u00f6hn");
+                    assertThat(request.getMiddleName()).isEqualTo("J@ \"q\" \u4e2d \ud83d\ude00");
+                    assertThat(request.getLastName()).isEqualTo("Doe");
+                    assertThat(request.getTemplate()).isNull();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldEmitEachLineAsSoonAsItIsRead() {
+        String ndjson = "{\"title\":\"Mr\",\"firstName\":\"John\"}\n{\"title\":\"Ms\",\"firstName\":7}\n";
+
+        StepVerifier.create(decoder.decode(bytes(ndjson, 5), TYPE, CodecConfig.APPLICATION_NDJSON, null))
+                .assertNext(request -> assertThat(request.getFirstName()).isEqualTo("John"))
+                .assertNext(request -> {
+                    assertThat(request.getTitle()).isEqualTo("Ms");
+                    assertThat(request.getFirstName()).isEqualTo("7");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldDecodeTopLevelArrayElements() {
+        StepVerifier.create(decoder.decode(bytes("[{\"title\":\"Mr\"}, {\"title\":\"Ms\"}]", 3), TYPE, MediaType.APPLICATION_JSON, null))
+                .assertNext(request -> assertThat(request.getTitle()).isEqualTo("Mr"))
+                .assertNext(request -> assertThat(request.getTitle()).isEqualTo("Ms"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldRejectMalformedInput() {
+        StepVerifier.create(decoder.decodeToMono(bytes("{\"title\":\"Mr\"", 4), TYPE, MediaType.APPLICATION_JSON, null))
+                .verifyError(DecodingException.class);
+
+        StepVerifier.create(decoder.decodeToMono(bytes("{\"title\":{\"nested\":1}}", 4), TYPE, MediaType.APPLICATION_JSON, null))
+                .verifyError(DecodingException.class);
+
+        StepVerifier.create(decoder.decodeToMono(bytes("{\"title\" \"Mr\"}", 4), TYPE, MediaType.APPLICATION_JSON, null))
+                .verifyError(DecodingException.class);
+    }
+
+    @Test
+    public void shouldAcceptOnlyJsonLiterals() {
+        String json = "{\"title\":true, \"firstName\":-1.5e+3, \"middleName\":0, \"lastName\":false, \"age\":null}";
+        StepVerifier.create(decoder.decodeToMono(bytes(json, 2), TYPE, MediaType.APPLICATION_JSON, null))
+                .assertNext(request -> {
+                    assertThat(request.getTitle()).isEqualTo("true");
+                    assertThat(request.getFirstName()).isEqualTo("-1.5e+3");
+                    assertThat(request.getMiddleName()).isEqualTo("0");
+                    assertThat(request.getLastName()).isEqualTo("false");
+                })
+                .verifyComplete();
+
+        for (String literal : new String[]{"foo", "nul", "True", "01", "1.", ".5", "-", "1e", "+1", "0x1f"}) {
+            StepVerifier.create(decoder.decodeToMono(bytes("{\"title\":" + literal + "}", 2), TYPE, MediaType.APPLICATION_JSON, null))
+                    .verifyError(DecodingException.class);
+            // unknown properties are skipped but still have to be valid JSON
+            StepVerifier.create(decoder.decodeToMono(bytes("{\"age\":" + literal + "}", 2), TYPE, MediaType.APPLICATION_JSON, null))
+                    .verifyError(DecodingException.class);
+        }
+    }
+
+    @Test
+    public void shouldEnforceTheSizeLimitPerObject() {
+        decoder.setMaxInMemorySize(32);
+
+        StepVerifier.create(decoder.decode(bytes("{\"title\":\"Mr\"}\n{\"title\":\"Mr\"}\n", 8), TYPE, CodecConfig.APPLICATION_NDJSON, null))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier.create(decoder.decode(bytes("{\"lastName\":\"Wolfeschlegelsteinhausenbergerdorff\"}", 8), TYPE, CodecConfig.APPLICATION_NDJSON, null))
+                .verifyError(DataBufferLimitException.class);
+    }
+
+    @Test
+    public void shouldTakeTheConfiguredMaxInMemorySize() {
+        CodecProperties properties = new CodecProperties();
+        properties.setMaxInMemorySize(DataSize.ofMegabytes(1));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Collections.singletonMap("codecProperties", properties));
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+
+        new CodecConfig(new ObjectMapper(), beans.getBeanProvider(CodecProperties.class)).configureHttpMessageCodecs(configurer);
+
+        FormatNameRequestDecoder registered = configurer.getReaders().stream()
+                .filter(reader -> reader instanceof DecoderHttpMessageReader)
+                .map(reader -> ((DecoderHttpMessageReader<?>) reader).getDecoder())
+                .filter(FormatNameRequestDecoder.class::isInstance)
+                .map(FormatNameRequestDecoder.class::cast)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(registered.getMaxInMemorySize()).isEqualTo(1024 * 1024);
+    }
+
+    private Flux<DataBuffer> bytes(String json, int chunk) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunk) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(chunk);
+            buffer.write(bytes, i, Math.min(chunk, bytes.length - i));
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
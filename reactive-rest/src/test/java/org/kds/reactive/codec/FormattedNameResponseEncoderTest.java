@@ -0,0 +1,105 @@
+package org.kds.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.kds.reactive.config.CodecConfig;
+import org.kds.reactive.model.Error;
+import org.kds.reactive.model.FormattedNameResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FormattedNameResponseEncoderTest {
+
+    private final FormattedNameResponseEncoder encoder = new FormattedNameResponseEncoder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    public void shouldOnlyClaimTheResponseModel() {
+        assertThat(encoder.canEncode(ResolvableType.forClass(FormattedNameResponse.class), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClass(Error.class), CodecConfig.APPLICATION_NDJSON)).isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(encoder.canEncode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(encoder.canEncode(ResolvableType.forClass(FormattedNameResponse.class), MediaType.APPLICATION_XML)).isFalse();
+    }
+
+    @Test
+    public void shouldWriteTheSameBytesAsJackson() throws Exception {
+        String[] names = {
+                "Mr John J@ Doe",
+                "quote \" backslash \\ slash /",
+                "control \b\t\n\f\r \u0000 \u001f",
+                "latin \u00e9 cjk \u4e2d emoji \ud83d\ude00",
+                ""
+        };
+
+        for (String name : names) {
+            FormattedNameResponse response = new FormattedNameResponse();
+            response.setFormattedName(name);
+            assertThat(encode(response)).isEqualTo(objectMapper.writeValueAsString(response));
+        }
+    }
+
+    @Test
+    public void shouldKeepNonNullInclusion() throws Exception {
+        FormattedNameResponse empty = new FormattedNameResponse();
+        assertThat(encode(empty)).isEqualTo("{}").isEqualTo(objectMapper.writeValueAsString(empty));
+
+        FormattedNameResponse errors = new FormattedNameResponse();
+        errors.setErrors(Arrays.asList(
+                new Error("firstName", "First name must be between 2 and 25 characters"),
+                new Error("middleName", null)));
+        assertThat(encode(errors)).isEqualTo(objectMapper.writeValueAsString(errors));
+
+        FormattedNameResponse both = new FormattedNameResponse();
+        both.setFormattedName("Mr John J@ Doe");
+        both.setErrors(Collections.emptyList());
+        assertThat(encode(both)).isEqualTo(objectMapper.writeValueAsString(both));
+    }
+
+    @Test
+    public void fluxShouldBeAnArrayUnlessStreaming() throws Exception {
+        FormattedNameResponse first = new FormattedNameResponse();
+        first.setFormattedName("Mr John J@ Doe");
+        FormattedNameResponse second = new FormattedNameResponse();
+        second.setErrors(Collections.singletonList(new Error("lastName", "Last name is required")));
+
+        assertThat(join(Flux.just(first, second), MediaType.APPLICATION_JSON))
+                .isEqualTo(objectMapper.writeValueAsString(Arrays.asList(first, second)));
+
+        assertThat(join(Flux.just(first, second), CodecConfig.APPLICATION_NDJSON))
+                .isEqualTo(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n");
+    }
+
+    private String encode(FormattedNameResponse response) {
+        DataBuffer buffer = encoder.encodeValue(response, bufferFactory,
+                ResolvableType.forClass(FormattedNameResponse.class), MediaType.APPLICATION_JSON, null);
+        // the size is computed up front, so the buffer must be exactly full
+        assertThat(buffer.writableByteCount()).isZero();
+        return toString(buffer);
+    }
+
+    private String join(Flux<FormattedNameResponse> responses, MediaType mediaType) {
+        return encoder.encode(responses, bufferFactory, ResolvableType.forClass(FormattedNameResponse.class), mediaType, null)
+                .map(this::toString)
+                .collect(StringBuilder::new, StringBuilder::append)
+                .map(StringBuilder::toString)
+                .block();
+    }
+
+    private String toString(DataBuffer buffer) {
+        String s = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return s;
+    }
+}
@@ -2,6 +2,7 @@ package org.kds.reactive.controller;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kds.reactive.config.CodecConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.http.MediaType;
@@ -10,6 +11,8 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @RunWith(SpringRunner.class)
 @WebFluxTest
 public class FluxAndMonoControllerIntegrationTest {
@@ -36,5 +39,48 @@ public class FluxAndMonoControllerIntegrationTest {
 
     }
 
+    @Test
+    public void testFormatBatchEndpoint() {
+        String requests = "{\"title\":\"Mr\",\"firstName\":\"John\",\"middleName\":\"J@\",\"lastName\":\"Doe\"}\n"
+                + "{\"title\":\"Ms\",\"firstName\":\"J\",\"middleName\":\"Jane@\",\"lastName\":\"Doe\"}\n";
+
+        webTestClient.post().uri("/format/batch")
+                .contentType(CodecConfig.APPLICATION_NDJSON)
+                .accept(CodecConfig.APPLICATION_NDJSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body.split("\n")).containsExactly(
+                        "{\"formattedName\":\"Mr John J@ Doe\"}",
+                        "{\"errors\":[{\"code\":\"firstName\",\"message\":\"First name must be between 2 and 25 characters\"}]}"));
+    }
 
+    @Test
+    public void testMetricsEndpoint() {
+        webTestClient.post().uri("/format")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Mr\",\"firstName\":\"John\",\"middleName\":\"J@\",\"lastName\":\"Doe\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/internal/metrics")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.routes[?(@.route == '/format')].statuses[0].status").isEqualTo(200)
+                .jsonPath("$.streams[?(@.name == 'fluxstream')].policy").isEqualTo("BUFFER")
+                .jsonPath("$.signalLogDropped").isNumber();
+
+        webTestClient.get().uri("/internal/metrics")
+                .accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains(
+                        "http_server_requests_seconds_count{route=\"/format\",status=\"200\"}",
+                        "stream_dropped_elements_total{endpoint=\"fluxstream\",policy=\"BUFFER\"} ",
+                        "signal_log_dropped_events_total "));
+    }
 }
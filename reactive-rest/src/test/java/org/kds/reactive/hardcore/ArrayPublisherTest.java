@@ -3,6 +3,7 @@ package org.kds.reactive.hardcore;
 import org.assertj.core.api.Assertions;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
@@ -21,7 +22,7 @@ public class ArrayPublisherTest {
     public void everyMethodInSubscriberShouldBeExecutedInParticularOrder() throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(1);
         ArrayList<String> observedSignals = new ArrayList<>();
-        ArrayPublisher<Long> arrayPublisher = new ArrayPublisher<>(generate(5));
+        Publisher<Long> arrayPublisher = publisher(new ArrayPublisher<>(generate(5)));
 
         arrayPublisher.subscribe(new Subscriber<Long>() {
             @Override
@@ -67,7 +68,7 @@ public class ArrayPublisherTest {
         ArrayList<Long> collected = new ArrayList<>();
         long toRequest = 5L;
         Long[] array = generate(toRequest);
-        ArrayPublisher<Long>  arrayPublisher = new ArrayPublisher<>(generate(toRequest));
+        Publisher<Long> arrayPublisher = publisher(new ArrayPublisher<>(generate(toRequest)));
         Subscription[] subscriptions = new Subscription[1];
 
         arrayPublisher.subscribe(new Subscriber<Long>() {
@@ -119,7 +120,7 @@ public class ArrayPublisherTest {
         ArrayList<Long> collected = new ArrayList<>();
         Long[] array = new Long[] {null};
         AtomicReference<Throwable> error = new AtomicReference<>();
-        ArrayPublisher<Long>  arrayPublisher = new ArrayPublisher<>(array);
+        Publisher<Long> arrayPublisher = publisher(new ArrayPublisher<>(array));
 
         arrayPublisher.subscribe(new Subscriber<Long>() {
             @Override
@@ -155,7 +156,7 @@ public class ArrayPublisherTest {
         ArrayList<Long> collected = new ArrayList<>();
         long toRequest = 1000L;
         Long[] array = generate(toRequest);
-        ArrayPublisher<Long>  arrayPublisher = new ArrayPublisher<>(generate(toRequest));
+        Publisher<Long> arrayPublisher = publisher(new ArrayPublisher<>(generate(toRequest)));
 
         arrayPublisher.subscribe(new Subscriber<Long>() {
             Subscription subscription;
@@ -191,7 +192,7 @@ public class ArrayPublisherTest {
         ArrayList<Long> collected = new ArrayList<>();
         final int toRequest = 100;
         Long[] array = generate(toRequest);
-        ArrayPublisher<Long>  arrayPublisher = new ArrayPublisher<>(generate(toRequest));
+        Publisher<Long> arrayPublisher = publisher(new ArrayPublisher<>(generate(toRequest)));
 
         arrayPublisher.subscribe(new Subscriber<Long>() {
             private Subscription subscription;
@@ -234,9 +235,9 @@ public class ArrayPublisherTest {
         Long[] array = generate(toRequest);
         ArrayList<Long> collected = new ArrayList<>();
 
-        new MapPublisher<>(
+        publisher(new MapPublisher<>(
                 new MapPublisher<>(new ArrayPublisher<>(array), Object::toString)
-                , Long::parseLong)
+                , Long::parseLong))
             .subscribe(new Subscriber<Long>() {
                 @Override
                 public void onSubscribe(Subscription s) {
@@ -263,6 +264,55 @@ public class ArrayPublisherTest {
     }
 
 
+    @Test
+    public void mapChainOverArrayShouldFuseIntoSingleLoop() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Long[] array = generate(5);
+        ArrayList<String> collected = new ArrayList<>();
+        AtomicReference<Subscription> received = new AtomicReference<>();
+
+        MapPublisher<Long, String> publisher = new MapPublisher<>(
+                new MapPublisher<>(new ArrayPublisher<>(array), l -> l * 2)
+                , l -> "#" + l);
+
+        assertThat(publisher.fused).isNotNull();
+
+        publisher.subscribe(new Subscriber<String>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    received.set(s);
+                    s.request(2);
+                    s.request(3);
+                }
+
+                @Override
+                public void onNext(String s) {
+                    collected.add(s);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+
+                }
+
+                @Override
+                public void onComplete() {
+                    latch.countDown();
+                }
+        });
+        latch.await(2, TimeUnit.SECONDS);
+        // the array subscription is handed out directly, no MapSubscriber in between
+        assertThat(received.get()).isInstanceOf(ArrayMapPublisher.ArrayMapSubscription.class);
+        assertThat(collected).containsExactly("#0", "#2", "#4", "#6", "#8");
+    }
+
+    /**
+     * The publisher the scenarios subscribe to, FuseableFluxTest runs them through the bridge.
+     */
+    <T> Publisher<T> publisher(Publisher<T> source) {
+        return source;
+    }
+
     static String[] generateStrings(long num) {
         return (String[]) LongStream.range(0, num >= Integer.MAX_VALUE ? 1000000 : num)
                 .mapToObj(String::valueOf)
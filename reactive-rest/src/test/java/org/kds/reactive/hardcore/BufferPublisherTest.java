@@ -0,0 +1,115 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.kds.reactive.hardcore.ArrayPublisherTest.generate;
+
+public class BufferPublisherTest {
+
+    @Test
+    public void shouldSliceArrayWithoutCopying() {
+        Long[] array = generate(10);
+        List<List<Long>> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Subscription[] subscription = new Subscription[1];
+
+        new BufferPublisher<>(new ArrayPublisher<>(array), 4)
+                .subscribe(collectingSubscriber(collected, subscription, completed));
+
+        subscription[0].request(2);
+        assertThat(collected).containsExactly(Arrays.asList(0L, 1L, 2L, 3L), Arrays.asList(4L, 5L, 6L, 7L));
+        assertThat(completed.get()).isFalse();
+
+        // the slices are views of the array
+        array[5] = 50L;
+        assertThat(collected.get(1).get(1)).isEqualTo(50L);
+
+        subscription[0].request(1);
+        assertThat(collected.get(2)).containsExactly(8L, 9L);
+        assertThat(completed.get()).isTrue();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void slicesShouldNotWriteThroughToTheArray() {
+        List<List<Long>> collected = new ArrayList<>();
+        Subscription[] subscription = new Subscription[1];
+
+        new BufferPublisher<>(new ArrayPublisher<>(generate(10)), 4)
+                .subscribe(collectingSubscriber(collected, subscription, new AtomicBoolean()));
+        subscription[0].request(1);
+
+        collected.get(0).set(0, 42L);
+    }
+
+    @Test
+    public void shouldTranslateDemandForPlainUpstream() {
+        List<Long> upstreamRequests = new ArrayList<>();
+        List<List<Long>> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Subscription[] subscription = new Subscription[1];
+
+        Publisher<Long> source = new MapPublisher<>(new ArrayPublisher<>(generate(7)), l -> l);
+        Publisher<Long> counted = s -> source.subscribe(new MapSubscriber<Long, Long>(l -> l, s) {
+            @Override
+            public void onSubscribe(Subscription upstream) {
+                super.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        upstreamRequests.add(n);
+                        upstream.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        upstream.cancel();
+                    }
+                });
+            }
+        });
+
+        new BufferPublisher<>(counted, 3).subscribe(collectingSubscriber(collected, subscription, completed));
+
+        subscription[0].request(1);
+        assertThat(collected).containsExactly(Arrays.asList(0L, 1L, 2L));
+
+        subscription[0].request(5);
+        assertThat(collected).containsExactly(Arrays.asList(0L, 1L, 2L), Arrays.asList(3L, 4L, 5L),
+                Arrays.asList(6L));
+        assertThat(completed.get()).isTrue();
+        assertThat(upstreamRequests).containsExactly(3L, 15L);
+    }
+
+    static Subscriber<List<Long>> collectingSubscriber(List<List<Long>> collected, Subscription[] subscription,
+                                                       AtomicBoolean completed) {
+        return new Subscriber<List<Long>>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(List<Long> batch) {
+                collected.add(batch);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        };
+    }
+}
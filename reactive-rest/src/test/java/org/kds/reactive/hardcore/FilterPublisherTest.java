@@ -0,0 +1,144 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.kds.reactive.hardcore.ArrayPublisherTest.generate;
+
+public class FilterPublisherTest {
+
+    @Test
+    public void droppedElementsShouldNotConsumeDemand() {
+        ArrayList<Long> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Subscription[] subscription = new Subscription[1];
+
+        new FilterPublisher<>(new ArrayPublisher<>(generate(100)), l -> l % 20 == 0)
+                .subscribe(collectingSubscriber(collected, subscription, completed));
+
+        subscription[0].request(2);
+        assertThat(collected).containsExactly(0L, 20L);
+        assertThat(completed.get()).isFalse();
+
+        subscription[0].request(3);
+        assertThat(collected).containsExactly(0L, 20L, 40L, 60L, 80L);
+        assertThat(completed.get()).isFalse();
+
+        // the remaining elements are all dropped without any further demand being used
+        subscription[0].request(1);
+        assertThat(collected).hasSize(5);
+        assertThat(completed.get()).isTrue();
+    }
+
+    @Test
+    public void shouldFilterThroughFusedMapWithoutExtraRequests() {
+        ArrayList<Long> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Subscription[] subscription = new Subscription[1];
+        AtomicLong requestCalls = new AtomicLong();
+
+        Publisher<Long> source = new MapPublisher<>(new ArrayPublisher<>(generate(50)), l -> l * 3);
+        Publisher<Long> counted = s -> source.subscribe(new MapSubscriber<Long, Long>(l -> l, s) {
+            @Override
+            public void onSubscribe(Subscription upstream) {
+                super.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requestCalls.incrementAndGet();
+                        upstream.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        upstream.cancel();
+                    }
+                });
+            }
+        });
+
+        // the plain wrapper hides the conditional contract, the filter has to replenish
+        new FilterPublisher<>(counted, l -> l % 2 == 0)
+                .subscribe(collectingSubscriber(collected, subscription, completed));
+        subscription[0].request(Long.MAX_VALUE);
+        assertThat(collected).hasSize(25);
+        assertThat(requestCalls.get()).isEqualTo(26L);
+
+        // talking to the fused map directly, the dropped elements are skipped inside the array loop
+        collected.clear();
+        new FilterPublisher<>(source, l -> l % 2 == 0)
+                .subscribe(collectingSubscriber(collected, subscription, completed));
+        subscription[0].request(25);
+        assertThat(collected).hasSize(25);
+        assertThat(collected.get(24)).isEqualTo(144L);
+    }
+
+    @Test
+    public void failingPredicateShouldCancelAndSignalError() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        ArrayList<Long> collected = new ArrayList<>();
+
+        new FilterPublisher<>(new ArrayPublisher<>(generate(10)), l -> {
+            if (l == 3) {
+                throw new IllegalStateException("boom");
+            }
+            return true;
+        }).subscribe(new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(10);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+            }
+
+            @Override
+            public void onComplete() {
+
+            }
+        });
+
+        assertThat(collected).containsExactly(0L, 1L, 2L);
+        assertThat(error.get()).isInstanceOf(IllegalStateException.class);
+    }
+
+    static Subscriber<Long> collectingSubscriber(List<Long> collected, Subscription[] subscription,
+                                                 AtomicBoolean completed) {
+        return new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        };
+    }
+}
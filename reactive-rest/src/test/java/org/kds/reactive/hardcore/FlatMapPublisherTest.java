@@ -0,0 +1,164 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.kds.reactive.hardcore.ArrayPublisherTest.generate;
+
+public class FlatMapPublisherTest {
+
+    @Test
+    public void shouldMergeAllInnersWithBoundedConcurrency() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Long> collected = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Subscription[] subscription = new Subscription[1];
+
+        // asynchronous inners, several of them are running when the next one is mapped
+        new FlatMapPublisher<Long, Long>(new ArrayPublisher<>(generate(100)), l -> subscriber -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            new PublishOnPublisher<>(new ArrayPublisher<>(generate(50)), executor, 8)
+                    .subscribe(new MapSubscriber<Long, Long>(v -> v, subscriber) {
+                        @Override
+                        public void onComplete() {
+                            active.decrementAndGet();
+                            super.onComplete();
+                        }
+                    });
+        }, 4, 8).subscribe(collectingSubscriber(collected, subscription, latch));
+
+        subscription[0].request(Long.MAX_VALUE);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).hasSize(100 * 50);
+        assertThat(maxActive.get()).isBetween(2, 4);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void unboundedConcurrencyShouldQueueScalarsWithoutPreallocating() {
+        List<Long> collected = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Subscription[] subscription = new Subscription[1];
+
+        new FlatMapPublisher<Long, Long>(new ArrayPublisher<>(generate(1000)), JustPublisher::new, Integer.MAX_VALUE)
+                .subscribe(collectingSubscriber(collected, subscription, latch));
+
+        subscription[0].request(10);
+        assertThat(collected).hasSize(10);
+
+        subscription[0].request(Long.MAX_VALUE);
+        assertThat(collected).containsExactly(generate(1000));
+        assertThat(latch.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void scalarInnersShouldHonourDemand() {
+        List<Long> collected = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Subscription[] subscription = new Subscription[1];
+
+        new FlatMapPublisher<Long, Long>(new ArrayPublisher<>(generate(10)), JustPublisher::new, 2)
+                .subscribe(collectingSubscriber(collected, subscription, latch));
+
+        subscription[0].request(3);
+        assertThat(collected).containsExactly(0L, 1L, 2L);
+
+        subscription[0].request(10);
+        assertThat(collected).containsExactly(generate(10));
+        assertThat(latch.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldMergeInnersEmittingFromManyThreads() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Long> collected = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Subscription[] subscription = new Subscription[1];
+
+        Long[] shards = generate(50);
+        new FlatMapPublisher<Long, Long>(new ArrayPublisher<>(shards),
+                shard -> new PublishOnPublisher<>(new ArrayPublisher<>(generate(200)), executor, 16), 8)
+                .subscribe(collectingSubscriber(collected, subscription, latch));
+        subscription[0].request(Long.MAX_VALUE);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).hasSize(50 * 200);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void innerErrorShouldCancelTheRest() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Long> collected = new ArrayList<>();
+
+        Publisher<Long> failing = s -> new ArrayPublisher<>(new Long[] {null}).subscribe(s);
+
+        new FlatMapPublisher<Long, Long>(new ArrayPublisher<>(generate(5)),
+                l -> l == 2 ? failing : new JustPublisher<>(l), 2)
+                .subscribe(new Subscriber<Long>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(Long aLong) {
+                        collected.add(aLong);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        error.set(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+
+                    }
+                });
+
+        assertThat(collected).containsExactly(0L, 1L);
+        assertThat(error.get()).isInstanceOf(NullPointerException.class);
+    }
+
+    static Subscriber<Long> collectingSubscriber(List<Long> collected, Subscription[] subscription,
+                                                 CountDownLatch latch) {
+        return new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        };
+    }
+}
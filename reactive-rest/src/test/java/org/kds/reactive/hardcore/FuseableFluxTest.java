@@ -0,0 +1,123 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+/**
+ * Runs the ArrayPublisherTest scenarios through the bridge, plus the fusion specific ones.
+ */
+public class FuseableFluxTest extends ArrayPublisherTest {
+
+    @Override
+    <T> Publisher<T> publisher(Publisher<T> source) {
+        return FuseableFlux.wrap(source);
+    }
+
+    // the bridge hands out its own subscription rather than the ArrayMapSubscription
+    @Override
+    @Test
+    public void mapChainOverArrayShouldFuseIntoSingleLoop() {
+        MapPublisher<Long, String> publisher = new MapPublisher<>(
+                new MapPublisher<>(new ArrayPublisher<>(generate(5)), l -> l * 2)
+                , l -> "#" + l);
+
+        StepVerifier.create(publisher(publisher))
+                .expectFusion(Fuseable.SYNC)
+                .expectNext("#0", "#2", "#4", "#6", "#8")
+                .verifyComplete();
+    }
+
+    @Test
+    public void arrayPublisherShouldFuseSynchronously() {
+        Long[] array = generate(5);
+
+        StepVerifier.create(FuseableFlux.wrap(new ArrayPublisher<>(array)))
+                .expectFusion(Fuseable.SYNC)
+                .expectNext(array)
+                .verifyComplete();
+    }
+
+    @Test
+    public void fusedMapChainAndReactorMapShouldStayFused() {
+        Flux<String> flux = FuseableFlux.wrap(
+                new MapPublisher<>(new MapPublisher<>(new ArrayPublisher<>(generate(3)), l -> l * 10), l -> l + 1))
+                .map(l -> "#" + l);
+
+        StepVerifier.create(flux)
+                .expectFusion(Fuseable.SYNC)
+                .expectNext("#1", "#11", "#21")
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldHonourBackPressureWithoutFusion() {
+        StepVerifier.create(FuseableFlux.wrap(new ArrayPublisher<>(generate(5))), 0)
+                .expectSubscription()
+                .thenRequest(1)
+                .expectNext(0L)
+                .thenRequest(2)
+                .expectNext(1L, 2L)
+                .thenRequest(10)
+                .expectNext(3L, 4L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldSendNPEForNullElement() {
+        StepVerifier.create(FuseableFlux.wrap(new ArrayPublisher<>(new Long[] {null})))
+                .expectError(NullPointerException.class)
+                .verify();
+    }
+
+    @Test
+    public void mappedArrayShouldNotFuseAcrossAThreadBarrier() {
+        FuseableFlux.ArrayQueueSubscription<Object> plain =
+                new FuseableFlux.ArrayQueueSubscription<>(generate(1), FuseableFlux.IDENTITY, null);
+        FuseableFlux.ArrayQueueSubscription<Object> mapped =
+                new FuseableFlux.ArrayQueueSubscription<>(generate(1), l -> (Long) l + 1, null);
+
+        assertThat(plain.requestFusion(Fuseable.ANY | Fuseable.THREAD_BARRIER)).isEqualTo(Fuseable.SYNC);
+        assertThat(mapped.requestFusion(Fuseable.ANY | Fuseable.THREAD_BARRIER)).isEqualTo(Fuseable.NONE);
+        assertThat(mapped.requestFusion(Fuseable.ANY)).isEqualTo(Fuseable.SYNC);
+    }
+
+    @Test
+    public void mapperShouldNotRunOnThePublishOnWorker() {
+        Scheduler worker = Schedulers.newSingle("barrier");
+        List<String> mappedOn = new CopyOnWriteArrayList<>();
+        try {
+            Flux<Long> flux = FuseableFlux.wrap(new MapPublisher<>(new ArrayPublisher<>(generate(100)), l -> {
+                mappedOn.add(Thread.currentThread().getName());
+                return l;
+            })).publishOn(worker);
+
+            StepVerifier.create(flux)
+                    .expectNextCount(100)
+                    .verifyComplete();
+
+            assertThat(mappedOn).hasSize(100).noneMatch(thread -> thread.startsWith("barrier"));
+        } finally {
+            worker.dispose();
+        }
+    }
+
+    @Test
+    public void otherPublishersShouldFallBackToFluxFrom() {
+        Flux<Long> flux = FuseableFlux.wrap(new FilterPublisher<>(new ArrayPublisher<>(generate(4)), l -> l > 1));
+
+        assertThat(flux).isNotInstanceOf(FuseableFlux.class);
+        StepVerifier.create(flux)
+                .expectNext(2L, 3L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,135 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+public class MappedFilePublisherTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("mapped-file-publisher", ".txt");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void shouldEmitLinesAcrossWindowsOnDemand() throws IOException {
+        Files.write(file, "alpha\nbeta\ngamma\ndelta\nlast".getBytes(StandardCharsets.UTF_8));
+        List<String> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        Subscription[] subscription = new Subscription[1];
+
+        // a window of 8 bytes forces the publisher to remap for nearly every line
+        new MappedFilePublisher<>(file, 0, 8, MappedFilePublisherTest::decode)
+                .subscribe(collectingSubscriber(collected, subscription, completed, new AtomicReference<>()));
+
+        assertThat(collected).isEmpty();
+
+        subscription[0].request(2);
+        assertThat(collected).containsExactly("alpha", "beta");
+
+        subscription[0].request(10);
+        assertThat(collected).containsExactly("alpha", "beta", "gamma", "delta", "last");
+        assertThat(completed.get()).isTrue();
+    }
+
+    @Test
+    public void shouldEmitFixedLengthRecordsAsSlices() throws IOException {
+        Files.write(file, "000111222333".getBytes(StandardCharsets.UTF_8));
+        List<ByteBuffer> collected = new ArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        MappedFilePublisher.fixedLength(file, 3).subscribe(new Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer record) {
+                collected.add(record);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        });
+
+        assertThat(collected).hasSize(4);
+        assertThat(collected.get(2).isDirect()).isTrue();
+        assertThat(decode(collected.get(2))).isEqualTo("222");
+        assertThat(completed.get()).isTrue();
+    }
+
+    @Test
+    public void partialTrailingRecordShouldSignalError() throws IOException {
+        Files.write(file, "00011".getBytes(StandardCharsets.UTF_8));
+        List<String> collected = new ArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Subscription[] subscription = new Subscription[1];
+
+        new MappedFilePublisher<>(file, 3, 1024, MappedFilePublisherTest::decode)
+                .subscribe(collectingSubscriber(collected, subscription, new AtomicBoolean(), error));
+        subscription[0].request(5);
+
+        assertThat(collected).containsExactly("000");
+        assertThat(error.get()).isInstanceOf(IllegalStateException.class);
+    }
+
+    static String decode(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static Subscriber<String> collectingSubscriber(List<String> collected, Subscription[] subscription,
+                                                   AtomicBoolean completed, AtomicReference<Throwable> error) {
+        return new Subscriber<String>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(String s) {
+                collected.add(s);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        };
+    }
+}
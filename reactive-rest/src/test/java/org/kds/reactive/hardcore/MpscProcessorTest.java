@@ -0,0 +1,176 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+public class MpscProcessorTest {
+
+    @Test
+    public void shouldDeliverEverythingFromManyProducers() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 10_000;
+        MpscProcessor<Integer> processor = new MpscProcessor<>();
+        List<Integer> collected = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Subscription[] subscription = new Subscription[1];
+
+        processor.subscribe(collectingSubscriber(collected, subscription, latch, new AtomicReference<>()));
+        subscription[0].request(Long.MAX_VALUE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch produced = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    processor.onNext(base + i);
+                }
+                produced.countDown();
+            });
+        }
+        assertThat(produced.await(5, TimeUnit.SECONDS)).isTrue();
+        processor.onComplete();
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).hasSize(producers * perProducer);
+        assertThat(collected.stream().distinct().count()).isEqualTo((long) producers * perProducer);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldBufferUntilRequested() {
+        MpscProcessor<Integer> processor = new MpscProcessor<>();
+        List<Integer> collected = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Subscription[] subscription = new Subscription[1];
+
+        processor.onNext(1);
+        processor.onNext(2);
+        processor.onNext(3);
+        processor.onComplete();
+        processor.subscribe(collectingSubscriber(collected, subscription, latch, new AtomicReference<>()));
+
+        assertThat(processor.queueDepth()).isEqualTo(3L);
+        subscription[0].request(2);
+        assertThat(collected).containsExactly(1, 2);
+        assertThat(processor.queueDepth()).isEqualTo(1L);
+        assertThat(latch.getCount()).isEqualTo(1L);
+
+        subscription[0].request(1);
+        assertThat(collected).containsExactly(1, 2, 3);
+        assertThat(latch.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void dropStrategyShouldCountDroppedElements() {
+        MpscProcessor<Integer> processor = new MpscProcessor<>(2, MpscProcessor.OverflowStrategy.DROP);
+        List<Integer> collected = new ArrayList<>();
+        Subscription[] subscription = new Subscription[1];
+        processor.subscribe(collectingSubscriber(collected, subscription, new CountDownLatch(1),
+                new AtomicReference<>()));
+
+        for (int i = 0; i < 5; i++) {
+            processor.onNext(i);
+        }
+        assertThat(processor.queueDepth()).isEqualTo(2L);
+        assertThat(processor.droppedCount()).isEqualTo(3L);
+
+        subscription[0].request(10);
+        assertThat(collected).containsExactly(0, 1);
+    }
+
+    @Test
+    public void cancelShouldReleaseOnlyTheDrainedSlots() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10_000;
+        MpscProcessor<Integer> processor = new MpscProcessor<>(64, MpscProcessor.OverflowStrategy.DROP);
+        List<Integer> collected = new ArrayList<>();
+        Subscription[] subscription = new Subscription[1];
+        processor.subscribe(collectingSubscriber(collected, subscription, new CountDownLatch(1),
+                new AtomicReference<>()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch produced = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    processor.onNext(i);
+                }
+                produced.countDown();
+            });
+        }
+        // racing the producers, the queue is cleared by whichever thread drains
+        subscription[0].cancel();
+        assertThat(produced.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdownNow();
+
+        assertThat(collected).isEmpty();
+        assertThat(processor.queueDepth()).isEqualTo(0L);
+    }
+
+    @Test
+    public void errorStrategyShouldTerminateOnOverflow() {
+        MpscProcessor<Integer> processor = new MpscProcessor<>(1, MpscProcessor.OverflowStrategy.ERROR);
+        List<Integer> collected = new ArrayList<>();
+        Subscription[] subscription = new Subscription[1];
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        processor.subscribe(collectingSubscriber(collected, subscription, new CountDownLatch(1), error));
+
+        processor.onNext(1);
+        processor.onNext(2);
+        subscription[0].request(10);
+
+        assertThat(collected).containsExactly(1);
+        assertThat(error.get()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void secondSubscriberShouldBeRejected() {
+        MpscProcessor<Integer> processor = new MpscProcessor<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        processor.subscribe(collectingSubscriber(new ArrayList<>(), new Subscription[1], new CountDownLatch(1),
+                new AtomicReference<>()));
+        processor.subscribe(collectingSubscriber(new ArrayList<>(), new Subscription[1], new CountDownLatch(1),
+                error));
+
+        assertThat(error.get()).isInstanceOf(IllegalStateException.class);
+    }
+
+    static Subscriber<Integer> collectingSubscriber(List<Integer> collected, Subscription[] subscription,
+                                                    CountDownLatch latch, AtomicReference<Throwable> error) {
+        return new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                collected.add(integer);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+                latch.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        };
+    }
+}
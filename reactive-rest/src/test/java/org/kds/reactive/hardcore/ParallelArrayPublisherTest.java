@@ -0,0 +1,121 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.kds.reactive.hardcore.ArrayPublisherTest.generate;
+
+public class ParallelArrayPublisherTest {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void railsShouldRunOnThePool() throws InterruptedException {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Long> collected = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        new ParallelArrayPublisher<>(generate(10_000), 4, pool)
+                .map(l -> {
+                    threads.add(Thread.currentThread().getName());
+                    return l * 2;
+                })
+                .sequential()
+                .subscribe(collectingSubscriber(collected, latch, Long.MAX_VALUE));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).hasSize(10_000);
+        assertThat(collected.stream().mapToLong(Long::longValue).sum()).isEqualTo(10_000L * 9_999L);
+        assertThat(threads).isNotEmpty();
+        assertThat(threads.stream().allMatch(name -> name.startsWith("ForkJoinPool"))).isTrue();
+    }
+
+    @Test
+    public void orderedJoinShouldKeepTheArrayOrder() throws InterruptedException {
+        Long[] array = generate(5_000);
+        List<Long> collected = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        new ParallelArrayPublisher<>(array, 3, pool)
+                .sequential(true)
+                .subscribe(collectingSubscriber(collected, latch, 7));
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).containsExactly(array);
+    }
+
+    @Test
+    public void eachRailShouldCoverAContiguousRange() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        List<List<Long>> rails = new CopyOnWriteArrayList<>();
+        @SuppressWarnings("unchecked")
+        Subscriber<Long>[] subscribers = new Subscriber[3];
+        for (int i = 0; i < 3; i++) {
+            List<Long> rail = new CopyOnWriteArrayList<>();
+            rails.add(rail);
+            subscribers[i] = collectingSubscriber(rail, latch, 1);
+        }
+
+        new ParallelArrayPublisher<>(generate(10), 3, pool).subscribe(subscribers);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(rails.get(0)).containsExactly(0L, 1L, 2L);
+        assertThat(rails.get(1)).containsExactly(3L, 4L, 5L);
+        assertThat(rails.get(2)).containsExactly(6L, 7L, 8L, 9L);
+    }
+
+    // requests in batches of the given size from whatever thread delivers the elements
+    static Subscriber<Long> collectingSubscriber(List<Long> collected, CountDownLatch latch, long batch) {
+        return new Subscriber<Long>() {
+            Subscription subscription;
+            long received;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription = s;
+                s.request(batch);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+                if (batch != Long.MAX_VALUE && ++received == batch) {
+                    received = 0;
+                    subscription.request(batch);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        };
+    }
+}
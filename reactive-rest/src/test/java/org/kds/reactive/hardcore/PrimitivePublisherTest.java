@@ -0,0 +1,147 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+public class PrimitivePublisherTest {
+
+    @Test
+    public void rangeShouldEmitOneByOneWithoutStackOverflow() {
+        long[] sum = new long[1];
+        boolean[] completed = new boolean[1];
+
+        new RangePublisher(0, 100_000).subscribe(new LongSubscriber() {
+            Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                this.subscription = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(long value) {
+                sum[0] += value;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+
+        assertThat(sum[0]).isEqualTo(100_000L * 99_999L / 2);
+        assertThat(completed[0]).isTrue();
+    }
+
+    @Test
+    public void intArrayMapChainShouldStayPrimitive() {
+        ArrayList<Integer> collected = new ArrayList<>();
+
+        new IntArrayPublisher(new int[] {1, 2, 3})
+                .map(i -> i * 10)
+                .map(i -> i + 1)
+                .subscribe(new IntSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(int value) {
+                        collected.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+
+                    }
+
+                    @Override
+                    public void onComplete() {
+
+                    }
+                });
+
+        assertThat(collected).containsExactly(11, 21, 31);
+    }
+
+    @Test
+    public void mapperErrorShouldCancelUpstream() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        ArrayList<Long> collected = new ArrayList<>();
+
+        new LongArrayPublisher(new long[] {1, 0, 2})
+                .map(l -> 10 / l)
+                .subscribe(new LongSubscriber() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(3);
+                    }
+
+                    @Override
+                    public void onNext(long value) {
+                        collected.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        error.set(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+
+                    }
+                });
+
+        assertThat(collected).containsExactly(10L);
+        assertThat(error.get()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void boxedShouldBridgeToPlainSubscriber() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        ArrayList<Long> collected = new ArrayList<>();
+
+        new RangePublisher(5, 4).map(l -> l * 2).boxed().subscribe(new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(2);
+                s.request(2);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(collected).containsExactly(10L, 12L, 14L, 16L);
+    }
+}
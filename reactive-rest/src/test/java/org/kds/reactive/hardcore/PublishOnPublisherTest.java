@@ -0,0 +1,156 @@
+package org.kds.reactive.hardcore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.kds.reactive.hardcore.ArrayPublisherTest.generate;
+
+public class PublishOnPublisherTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void startExecutor() {
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "publish-on-worker"));
+    }
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldDeliverInOrderOnTheExecutor() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Long[] array = generate(10_000);
+        ArrayList<Long> collected = new ArrayList<>();
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        new PublishOnPublisher<>(new ArrayPublisher<>(array), executor, 32).subscribe(new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                threadName.set(Thread.currentThread().getName());
+                collected.add(aLong);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(threadName.get()).isEqualTo("publish-on-worker");
+        assertThat(collected).containsExactly(array);
+    }
+
+    @Test
+    public void shouldReplenishUpstreamInBatches() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Long> upstreamRequests = new CopyOnWriteArrayList<>();
+        Publisher<Long> source = new ArrayPublisher<>(generate(64));
+        Publisher<Long> counted = s -> source.subscribe(new MapSubscriber<Long, Long>(l -> l, s) {
+            @Override
+            public void onSubscribe(Subscription upstream) {
+                super.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        upstreamRequests.add(n);
+                        upstream.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        upstream.cancel();
+                    }
+                });
+            }
+        });
+
+        new PublishOnPublisher<>(counted, executor, 16).subscribe(new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+                latch.countDown();
+            }
+        });
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        // initial prefetch, then 75% of it each time
+        assertThat(upstreamRequests).containsExactly(16L, 12L, 12L, 12L, 12L, 12L);
+    }
+
+    @Test
+    public void shouldHonourDownstreamDemand() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        List<Long> collected = new CopyOnWriteArrayList<>();
+        Subscription[] subscription = new Subscription[1];
+
+        new PublishOnPublisher<>(new ArrayPublisher<>(generate(10)), executor).subscribe(new Subscriber<Long>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription[0] = s;
+                s.request(3);
+            }
+
+            @Override
+            public void onNext(Long aLong) {
+                collected.add(aLong);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+
+            }
+
+            @Override
+            public void onComplete() {
+
+            }
+        });
+
+        assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        assertThat(collected).containsExactly(0L, 1L, 2L);
+        subscription[0].cancel();
+    }
+}
@@ -0,0 +1,102 @@
+package org.kds.reactive.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SampledLogTest {
+
+    @After
+    public void tearDown() {
+        SampledLog.setSampleRate(0);
+    }
+
+    @Test
+    public void shouldBeOffByDefault() {
+        assertThat(SampledLog.getSampleRate()).isZero();
+
+        StepVerifier.create(Flux.range(1, 4).transform(SampledLog.signals("test")))
+                .expectNext(1, 2, 3, 4)
+                .verifyComplete();
+    }
+
+    @Test
+    public void sampledSignalsShouldPassThroughUnchanged() {
+        SampledLog.setSampleRate(2);
+
+        StepVerifier.create(Flux.range(1, 4).transform(SampledLog.signals("test")), 0)
+                .thenRequest(2)
+                .expectNext(1, 2)
+                .thenRequest(2)
+                .expectNext(3, 4)
+                .verifyComplete();
+
+        StepVerifier.create(Flux.<Integer>error(new IllegalStateException("boom")).transform(SampledLog.signals("test")))
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    public void contextShouldOverrideTheGlobalRate() {
+        StepVerifier.create(Flux.range(1, 1000)
+                        .transform(SampledLog.signals("test"))
+                        .subscriberContext(context -> context.put(SampledLog.CONTEXT_KEY, 1)))
+                .expectNextCount(1000)
+                .verifyComplete();
+    }
+
+    @Test
+    public void rateChangeShouldApplyToRunningSubscriptions() throws InterruptedException {
+        Logger logger = (Logger) LoggerFactory.getLogger("test.live");
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        events.start();
+        logger.addAppender(events);
+        try {
+            TestPublisher<Integer> source = TestPublisher.create();
+
+            StepVerifier.create(source.flux().transform(SampledLog.signals("test.live")))
+                    .then(() -> source.next(1))
+                    .expectNext(1)
+                    .then(() -> SampledLog.setSampleRate(1))
+                    .then(() -> source.next(2))
+                    .expectNext(2)
+                    .then(() -> SampledLog.setSampleRate(0))
+                    .then(() -> source.next(3))
+                    .expectNext(3)
+                    .thenCancel()
+                    .verify();
+
+            // written by the appender thread
+            for (int i = 0; i < 100 && events.list.isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+            assertThat(events.list).hasSize(1);
+            assertThat(events.list.get(0).getFormattedMessage()).startsWith("| onNext(2) on ");
+        } finally {
+            logger.detachAppender(events);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeRateShouldBeRejected() {
+        SampledLog.setSampleRate(-1);
+    }
+
+    @Test
+    public void eventsShouldReadLikeLog() {
+        assertThat(new SignalEvent("test", SignalType.REQUEST, Long.MAX_VALUE, "main").toString())
+                .isEqualTo("| request(unbounded) on main");
+        assertThat(new SignalEvent("test", SignalType.ON_NEXT, 3, "main").toString())
+                .isEqualTo("| onNext(3) on main");
+        assertThat(new SignalEvent("test", SignalType.ON_COMPLETE, null, "main").toString())
+                .isEqualTo("| onComplete() on main");
+    }
+}
@@ -0,0 +1,53 @@
+package org.kds.reactive.mapper;
+
+import org.junit.Test;
+import org.kds.reactive.model.FormatNameRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NameTemplateTest {
+
+    @Test
+    public void defaultTemplateShouldMatchStringFormat() {
+        FormatNameRequest request = request("Mr", "John", "J@", "Doe");
+
+        assertThat(FormattedNameResponseMapper.template(null).format(request))
+                .isEqualTo(String.format("%s %s %s %s", "Mr", "John", "J@", "Doe"));
+    }
+
+    @Test
+    public void optionalPlaceholderShouldDropItsSeparator() {
+        NameTemplate template = NameTemplate.compile("<{title} {firstName} {middleName?} {lastName}>");
+
+        assertThat(template.format(request("Ms", "Jane", null, "Doe"))).isEqualTo("<Ms Jane Doe>");
+        assertThat(template.format(request("Ms", "Jane", "", "Doe"))).isEqualTo("<Ms Jane Doe>");
+        assertThat(template.format(request("Ms", "Jane", "A@", "Doe"))).isEqualTo("<Ms Jane A@ Doe>");
+    }
+
+    @Test
+    public void templateShouldBeSelectedPerRequest() {
+        FormatNameRequest request = request("Dr", "Ada", "K@", "Lovelace");
+
+        request.setTemplate("formal");
+        assertThat(FormattedNameResponseMapper.fromFormatNameRequest(request).getFormattedName())
+                .isEqualTo("Dr Lovelace");
+
+        request.setTemplate("no-such-template");
+        assertThat(FormattedNameResponseMapper.fromFormatNameRequest(request).getFormattedName())
+                .isEqualTo("Dr Ada K@ Lovelace");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPlaceholderShouldFailAtCompileTime() {
+        NameTemplate.compile("{title} {nickName}");
+    }
+
+    static FormatNameRequest request(String title, String firstName, String middleName, String lastName) {
+        FormatNameRequest request = new FormatNameRequest();
+        request.setTitle(title);
+        request.setFirstName(firstName);
+        request.setMiddleName(middleName);
+        request.setLastName(lastName);
+        return request;
+    }
+}
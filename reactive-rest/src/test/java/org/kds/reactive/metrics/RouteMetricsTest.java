@@ -0,0 +1,73 @@
+package org.kds.reactive.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteMetricsTest {
+
+    private final RouteMetrics metrics = new RouteMetrics();
+
+    @Test
+    public void snapshotShouldHoldPercentilesPerRouteAndStatus() {
+        RouteMetrics.RouteStats format = metrics.route("/format");
+        for (int i = 1; i <= 1000; i++) {
+            format.status(200).record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        format.status(400).record(TimeUnit.MILLISECONDS.toNanos(5));
+        format.bytesWritten.add(42);
+        metrics.route("/flux").status(200).record(TimeUnit.SECONDS.toNanos(4));
+
+        List<RouteSnapshot> routes = metrics.snapshot();
+
+        assertThat(routes).extracting(RouteSnapshot::getRoute).containsExactly("/flux", "/format");
+        RouteSnapshot snapshot = routes.get(1);
+        assertThat(snapshot.getBytesWritten()).isEqualTo(42L);
+        assertThat(snapshot.getStatuses()).extracting(LatencySnapshot::getStatus).containsExactly(200, 400);
+
+        LatencySnapshot ok = snapshot.getStatuses().get(0);
+        assertThat(ok.getCount()).isEqualTo(1000L);
+        // three significant digits
+        assertThat(ok.getP50Micros()).isBetween(499_500L, 500_500L);
+        assertThat(ok.getP99Micros()).isBetween(989_000L, 991_000L);
+        assertThat(ok.getP999Micros()).isBetween(998_000L, 1_000_000L);
+        assertThat(ok.getMaxMicros()).isBetween(999_000L, 1_001_000L);
+        assertThat(ok.getSumMicros()).isEqualTo(500_500_000L);
+    }
+
+    @Test
+    public void snapshotsShouldAccumulateIntervals() {
+        RouteMetrics.StatusStats stats = metrics.route("/format").status(200);
+        stats.record(1_000);
+        assertThat(metrics.snapshot().get(0).getStatuses().get(0).getCount()).isEqualTo(1L);
+
+        // nothing recorded in between, a second reader sees the same
+        assertThat(metrics.snapshot().get(0).getStatuses().get(0).getCount()).isEqualTo(1L);
+
+        stats.record(2_000);
+        assertThat(metrics.snapshot().get(0).getStatuses().get(0).getCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void prometheusFormatShouldWriteSummariesInSeconds() {
+        metrics.requestStarted();
+        RouteMetrics.RouteStats route = metrics.route("/say \"hi\"");
+        route.status(200).record(TimeUnit.MILLISECONDS.toNanos(250));
+        route.inFlight.increment();
+        route.bytesWritten.add(10);
+
+        String text = PrometheusFormat.format(metrics.inFlight(), metrics.snapshot());
+
+        assertThat(text).contains(
+                "# TYPE http_server_requests_seconds summary\n",
+                "http_server_requests_in_flight 1\n",
+                "http_server_requests_seconds{route=\"/say \\\"hi\\\"\",status=\"200\",quantile=\"0.5\"} 0.25",
+                "http_server_requests_seconds_count{route=\"/say \\\"hi\\\"\",status=\"200\"} 1\n",
+                "http_server_requests_seconds_sum{route=\"/say \\\"hi\\\"\",status=\"200\"} 0.25\n",
+                "http_server_responses_in_flight{route=\"/say \\\"hi\\\"\"} 1\n",
+                "http_server_response_bytes_total{route=\"/say \\\"hi\\\"\"} 10\n");
+    }
+}
@@ -0,0 +1,136 @@
+package org.kds.reactive.scheduler;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelSchedulerTest {
+
+    private final TimingWheelScheduler scheduler = new TimingWheelScheduler("wheel-test", Duration.ofMillis(1), 2);
+
+    @After
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void delayedTaskShouldNotRunEarly() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        long[] ranAfter = new long[1];
+
+        scheduler.schedule(() -> {
+            ranAfter[0] = System.nanoTime() - start;
+            latch.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ranAfter[0]).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void tasksShouldRunInDeadlineOrderAcrossWheels() throws InterruptedException {
+        // a single worker, otherwise two ticks processed back to back may run concurrently
+        TimingWheelScheduler serial = new TimingWheelScheduler("wheel-order", Duration.ofMillis(1), 1);
+        // 300 and 700 ticks live in the second wheel and cascade down before running
+        int[] delays = {700, 5, 300, 120, 1, 256, 512};
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(delays.length);
+
+        for (int delay : delays) {
+            serial.schedule(() -> {
+                order.add(delay);
+                latch.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly(1, 5, 120, 256, 300, 512, 700);
+        } finally {
+            serial.dispose();
+        }
+    }
+
+    @Test
+    public void cancelledTaskShouldNotRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch after = new CountDownLatch(1);
+
+        Disposable cancelled = scheduler.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        Disposable alsoCancelled = scheduler.schedule(runs::incrementAndGet, 400, TimeUnit.MILLISECONDS);
+        scheduler.schedule(after::countDown, 450, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+        cancelled.dispose();
+        alsoCancelled.dispose();
+
+        assertThat(after.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs.get()).isZero();
+        assertThat(cancelled.isDisposed()).isTrue();
+    }
+
+    @Test
+    public void manyPendingTimersShouldAllFire() throws InterruptedException {
+        int count = 100_000;
+        CountDownLatch latch = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(latch::countDown, 10 + (i % 500), TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void periodicTaskShouldRepeatUntilDisposed() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(5);
+        Disposable periodic = scheduler.schedulePeriodically(latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        periodic.dispose();
+        assertThat(periodic.isDisposed()).isTrue();
+    }
+
+    @Test
+    public void workerShouldRunItsTasksOneAtATimeInOrder() throws InterruptedException {
+        Scheduler.Worker worker = scheduler.createWorker();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            worker.schedule(() -> {
+                if (running.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(n);
+                running.decrementAndGet();
+                latch.countDown();
+            });
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(overlaps.get()).isZero();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(order.get(i)).isEqualTo(i);
+        }
+
+        AtomicInteger delayedRuns = new AtomicInteger();
+        worker.schedule(delayedRuns::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        worker.dispose();
+        Thread.sleep(100);
+        assertThat(delayedRuns.get()).isZero();
+    }
+}
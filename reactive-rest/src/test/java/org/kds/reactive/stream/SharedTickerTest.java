@@ -0,0 +1,181 @@
+package org.kds.reactive.stream;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedTickerTest {
+
+    private final VirtualTimeScheduler time = VirtualTimeScheduler.create();
+    private final CountingScheduler scheduler = new CountingScheduler(time);
+    private final SharedTicker ticker = new SharedTicker(Duration.ofSeconds(1), scheduler);
+
+    @After
+    public void tearDown() {
+        time.dispose();
+    }
+
+    @Test
+    public void shouldScheduleOneTimerWhateverTheNumberOfSubscribers() {
+        AtomicLong received = new AtomicLong();
+
+        for (int connections : new int[]{1, 100, 10_000}) {
+            List<Disposable> subscriptions = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                subscriptions.add(ticker.ticks().subscribe(tick -> received.incrementAndGet()));
+            }
+            time.advanceTimeBy(Duration.ofSeconds(1));
+
+            assertThat(scheduler.periodicTasks.get()).isEqualTo(1);
+            assertThat(scheduler.activeTasks.get()).isEqualTo(1);
+
+            subscriptions.forEach(Disposable::dispose);
+            // the last subscriber leaving stops the timer
+            assertThat(scheduler.activeTasks.get()).isZero();
+            scheduler.periodicTasks.set(0);
+        }
+
+        assertThat(received.get()).isEqualTo(1 + 100 + 10_000);
+    }
+
+    @Test
+    public void lateSubscriberShouldJoinAtTheCurrentTick() {
+        List<Long> early = new ArrayList<>();
+        List<Long> late = new ArrayList<>();
+
+        Disposable first = ticker.ticks().subscribe(early::add);
+        time.advanceTimeBy(Duration.ofSeconds(3));
+
+        Disposable second = ticker.ticks().subscribe(late::add);
+        time.advanceTimeBy(Duration.ofSeconds(2));
+
+        assertThat(early).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(late).containsExactly(2L, 3L, 4L);
+
+        first.dispose();
+        second.dispose();
+        assertThat(scheduler.activeTasks.get()).isZero();
+    }
+
+    @Test
+    public void shouldRestartAfterTheLastSubscriberLeft() {
+        ticker.ticks().take(2).subscribe();
+        time.advanceTimeBy(Duration.ofSeconds(2));
+        assertThat(scheduler.activeTasks.get()).isZero();
+
+        List<Long> ticks = new ArrayList<>();
+        Disposable again = ticker.ticks().subscribe(ticks::add);
+        time.advanceTimeBy(Duration.ofSeconds(2));
+
+        assertThat(ticks).containsExactly(0L, 1L);
+        assertThat(scheduler.periodicTasks.get()).isEqualTo(2);
+        again.dispose();
+    }
+
+    /**
+     * Counts the periodic tasks scheduled on its workers, which is where Flux.interval
+     * schedules, in total and still running. A task stops running when it or its worker is
+     * disposed.
+     */
+    static final class CountingScheduler implements Scheduler {
+
+        final Scheduler delegate;
+        final AtomicInteger periodicTasks = new AtomicInteger();
+        final AtomicInteger activeTasks = new AtomicInteger();
+
+        CountingScheduler(Scheduler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            return delegate.schedule(task);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            return delegate.schedule(task, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            return delegate.schedulePeriodically(task, initialDelay, period, unit);
+        }
+
+        @Override
+        public Worker createWorker() {
+            return new CountingWorker(delegate.createWorker());
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        final class CountingWorker implements Worker {
+
+            final Worker worker;
+            final List<AtomicBoolean> running = new ArrayList<>();
+
+            CountingWorker(Worker worker) {
+                this.worker = worker;
+            }
+
+            @Override
+            public Disposable schedule(Runnable task) {
+                return worker.schedule(task);
+            }
+
+            @Override
+            public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+                return worker.schedule(task, delay, unit);
+            }
+
+            @Override
+            public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+                periodicTasks.incrementAndGet();
+                activeTasks.incrementAndGet();
+                AtomicBoolean stopped = new AtomicBoolean();
+                synchronized (running) {
+                    running.add(stopped);
+                }
+                Disposable disposable = worker.schedulePeriodically(task, initialDelay, period, unit);
+                return () -> {
+                    stop(stopped);
+                    disposable.dispose();
+                };
+            }
+
+            @Override
+            public void dispose() {
+                synchronized (running) {
+                    running.forEach(this::stop);
+                }
+                worker.dispose();
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return worker.isDisposed();
+            }
+
+            private void stop(AtomicBoolean stopped) {
+                if (stopped.compareAndSet(false, true)) {
+                    activeTasks.decrementAndGet();
+                }
+            }
+        }
+    }
+}
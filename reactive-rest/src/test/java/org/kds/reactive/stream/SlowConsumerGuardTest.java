@@ -0,0 +1,94 @@
+package org.kds.reactive.stream;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowConsumerGuardTest {
+
+    private final TestPublisher<Integer> source = TestPublisher.create();
+
+    // ten elements arrive while the client has not asked for any
+    private void burst() {
+        for (int i = 0; i < 10; i++) {
+            source.next(i);
+        }
+    }
+
+    @Test
+    public void dropOldestShouldKeepTheNewestElements() {
+        SlowConsumerGuard guard = new SlowConsumerGuard("test", OverflowPolicy.DROP_OLDEST, 3);
+
+        StepVerifier.create(guard.apply(source.flux()), 0)
+                .then(this::burst)
+                .then(() -> {
+                    assertThat(guard.getDropped()).isEqualTo(7);
+                    assertThat(guard.getLagging()).isEqualTo(1);
+                })
+                .then(source::complete)
+                .thenRequest(3)
+                .expectNext(7, 8, 9)
+                .then(() -> assertThat(guard.getLagging()).isZero())
+                .verifyComplete();
+    }
+
+    @Test
+    public void keepLatestShouldOnlyKeepTheLastElement() {
+        SlowConsumerGuard guard = new SlowConsumerGuard("test", OverflowPolicy.KEEP_LATEST, 3);
+
+        StepVerifier.create(guard.apply(source.flux()), 0)
+                .then(this::burst)
+                .then(source::complete)
+                .thenRequest(1)
+                .expectNext(9)
+                .verifyComplete();
+
+        assertThat(guard.getDropped()).isEqualTo(9);
+    }
+
+    @Test
+    public void bufferShouldDropWhatDoesNotFit() {
+        SlowConsumerGuard guard = new SlowConsumerGuard("test", OverflowPolicy.BUFFER, 3);
+
+        StepVerifier.create(guard.apply(source.flux()), 0)
+                .then(this::burst)
+                .then(source::complete)
+                .thenRequest(10)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+
+        assertThat(guard.getDropped()).isEqualTo(7);
+        assertThat(guard.getLagging()).isZero();
+    }
+
+    @Test
+    public void disconnectShouldEndTheStreamOfALaggingClient() {
+        SlowConsumerGuard guard = new SlowConsumerGuard("test", OverflowPolicy.DISCONNECT, 3);
+
+        StepVerifier.create(guard.apply(source.flux()), 0)
+                .then(this::burst)
+                .then(() -> {
+                    assertThat(guard.getDisconnected()).isEqualTo(1);
+                    source.assertCancelled();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+
+        assertThat(guard.getLagging()).isZero();
+    }
+
+    @Test
+    public void fastClientShouldNotBeAffected() {
+        SlowConsumerGuard guard = new SlowConsumerGuard("test", OverflowPolicy.KEEP_LATEST, 1);
+
+        StepVerifier.create(guard.apply(Flux.range(0, 10)))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        assertThat(guard.getDropped()).isZero();
+    }
+}
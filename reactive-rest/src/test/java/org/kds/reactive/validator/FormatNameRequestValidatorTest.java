@@ -0,0 +1,73 @@
+package org.kds.reactive.validator;
+
+import org.junit.Test;
+import org.kds.reactive.model.Error;
+import org.kds.reactive.model.FormatNameRequest;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FormatNameRequestValidatorTest {
+
+    private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final FormatNameRequestValidator validator = new FormatNameRequestValidator(beanValidator);
+
+    @Test
+    public void validRequestShouldHaveNoErrors() {
+        assertThat(validator.validate(request("Mr", "John", "J@", "Doe"))).isEmpty();
+    }
+
+    @Test
+    public void shouldReportTheSameErrorsAsBeanValidation() {
+        FormatNameRequest[] requests = {
+                request(null, "John", "J@", "Doe"),
+                request("Mr", "J", "J@", "Doe"),
+                request("Mr", "Johnathan Johnathan Johnathan", "J@", "Doe"),
+                request("Mr", "John", "J", "Doe"),
+                request("Mr", "John", null, "Doe"),
+                request("Mr", "John", "J@", "   "),
+                request(null, null, null, null),
+                // twice, the second time with the NotNull message already learnt
+                request("Mr", null, "J@", "Doe"),
+                request("Mr", null, "J@", "Doe")
+        };
+
+        for (FormatNameRequest request : requests) {
+            assertThat(codesAndMessages(validator.validate(request)))
+                    .containsExactlyInAnyOrderElementsOf(beanValidation(request));
+        }
+    }
+
+    @Test
+    public void errorsShouldFollowTheFieldOrder() {
+        List<Error> errors = validator.validate(request(null, "J", "J", ""));
+
+        assertThat(errors).extracting(Error::getCode)
+                .containsExactly("title", "firstName", "middleName", "lastName");
+    }
+
+    private List<String> beanValidation(FormatNameRequest request) {
+        return beanValidator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> codesAndMessages(List<Error> errors) {
+        return errors.stream()
+                .map(error -> error.getCode() + ": " + error.getMessage())
+                .collect(Collectors.toList());
+    }
+
+    private static FormatNameRequest request(String title, String firstName, String middleName, String lastName) {
+        FormatNameRequest request = new FormatNameRequest();
+        request.setTitle(title);
+        request.setFirstName(firstName);
+        request.setMiddleName(middleName);
+        request.setLastName(lastName);
+        return request;
+    }
+}
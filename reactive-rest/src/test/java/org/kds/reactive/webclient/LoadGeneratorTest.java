@@ -0,0 +1,79 @@
+package org.kds.reactive.webclient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.integration.ClientAndServer.startClientAndServer;
+
+public class LoadGeneratorTest {
+
+    private ClientAndServer mockServer;
+    private LoadGenerator generator;
+
+    @Before
+    public void setUp() {
+        mockServer = startClientAndServer(1081);
+        mockServer.when(HttpRequest.request().withMethod("GET").withPath("/fast"))
+                .respond(HttpResponse.response().withBody("ok"));
+        mockServer.when(HttpRequest.request().withMethod("GET").withPath("/slow"))
+                .respond(HttpResponse.response().withBody("ok").withDelay(TimeUnit.MILLISECONDS, 200));
+        generator = new LoadGenerator("http://localhost:1081", 16);
+    }
+
+    @After
+    public void tearDown() {
+        generator.dispose();
+        mockServer.stop();
+    }
+
+    @Test
+    public void openModelShouldSendAtTheConfiguredRate() {
+        LoadReport report = generator.run(LoadProfile.open(100)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofSeconds(2))
+                .request(HttpMethod.GET, "/fast"));
+
+        assertThat(report.getErrors()).isZero();
+        // within 20% of the rate, the first requests also open the connections
+        assertThat(report.getThroughput()).isBetween(80.0, 120.0);
+        // responses arriving after the end are read but not counted as completed
+        assertThat(report.getBytesRead()).isBetween(report.getCompleted() * 2, 200L * 2);
+    }
+
+    @Test
+    public void closedModelShouldKeepItsUsersBusy() {
+        LoadReport report = generator.run(LoadProfile.closed(4)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofSeconds(1))
+                .request(HttpMethod.GET, "/slow"));
+
+        assertThat(report.getErrors()).isZero();
+        // 4 users waiting 200ms on each response, at most 5 each within the second
+        assertThat(report.getCompleted()).isBetween(8L, 20L);
+        assertThat(report.getServiceTimeMillis(50)).isGreaterThanOrEqualTo(200.0);
+    }
+
+    @Test
+    public void latencyShouldIncludeTheTimeSpentWaitingToSend() {
+        // a single request at a time cannot keep up with 20 req/s of 200ms requests
+        LoadReport report = generator.run(LoadProfile.open(20)
+                .maxInFlight(1)
+                .warmup(Duration.ZERO)
+                .duration(Duration.ofSeconds(2))
+                .request(HttpMethod.GET, "/slow"));
+
+        // 40 requests sent one after the other take about 8s, the last ones were due at 2s
+        assertThat(report.getServiceTimeMillis(50)).isLessThan(1000.0);
+        assertThat(report.getLatencyMillis(99)).isGreaterThan(2000.0);
+        assertThat(report.getLatencyMillis(99)).isGreaterThan(3 * report.getServiceTimeMillis(50));
+    }
+}
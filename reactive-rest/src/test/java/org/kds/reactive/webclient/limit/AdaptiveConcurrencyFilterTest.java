@@ -0,0 +1,119 @@
+package org.kds.reactive.webclient.limit;
+
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.integration.ClientAndServer.startClientAndServer;
+
+public class AdaptiveConcurrencyFilterTest {
+
+    private static final String BASE_URL = "http://localhost:1082";
+
+    private ClientAndServer mockServer;
+
+    @Before
+    public void startMockServer() {
+        mockServer = startClientAndServer(1082);
+        // a dependency that has slowed down
+        mockServer.when(HttpRequest.request().withMethod("GET").withPath("/accounts"))
+                .respond(HttpResponse.response()
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .withBody("{ \"result\": \"ok\"}")
+                        .withDelay(TimeUnit.MILLISECONDS, 300));
+        mockServer.when(HttpRequest.request().withMethod("GET").withPath("/overloaded"))
+                .respond(HttpResponse.response().withStatusCode(503));
+    }
+
+    @After
+    public void stopMockServer() {
+        mockServer.stop();
+    }
+
+    @Test
+    public void callsOverTheLimitShouldFailFast() {
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter("accounts", 4, new AimdLimit(1, 100, 0.5));
+        WebClient webClient = WebClient.builder().baseUrl(BASE_URL).filter(filter).build();
+
+        List<String> outcomes = Flux.range(0, 10)
+                .flatMap(i -> webClient.get().uri("/accounts")
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .map(body -> "ok")
+                        .onErrorResume(LimitExceededException.class, e -> Mono.just("rejected")))
+                .collectList()
+                .block();
+
+        assertThat(outcomes).filteredOn("ok"::equals).hasSize(4);
+        assertThat(outcomes).filteredOn("rejected"::equals).hasSize(6);
+        assertThat(filter.getRejected()).isEqualTo(6L);
+        assertThat(filter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void limitShouldBackOffWhenCallsTimeOut() {
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter("accounts", 8, new AimdLimit(1, 100, 0.5));
+        HttpClient httpClient = HttpClient.create()
+                .tcpConfiguration(tcpClient -> tcpClient.doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(100, TimeUnit.MILLISECONDS))));
+        WebClient webClient = WebClient.builder()
+                .baseUrl(BASE_URL)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(filter)
+                .build();
+
+        Flux.range(0, 8)
+                .flatMap(i -> webClient.get().uri("/accounts")
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .onErrorResume(e -> Mono.empty()))
+                .blockLast();
+
+        assertThat(filter.getLimit()).isEqualTo(1);
+        assertThat(filter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void limitShouldBackOffWhenCallersTimeOut() {
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter("accounts", 8, new AimdLimit(1, 100, 0.5));
+        WebClient webClient = WebClient.builder().baseUrl(BASE_URL).filter(filter).build();
+
+        // the signal timeout cancels the exchange rather than failing it
+        Flux.range(0, 8)
+                .flatMap(i -> webClient.get().uri("/accounts")
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .timeout(Duration.ofMillis(100))
+                        .onErrorResume(TimeoutException.class, e -> Mono.empty()))
+                .blockLast();
+
+        assertThat(filter.getLimit()).isEqualTo(1);
+        assertThat(filter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void overloadedResponsesShouldCountAsDropped() {
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter("accounts", 10, new AimdLimit(1, 100, 0.5));
+        WebClient webClient = WebClient.builder().baseUrl(BASE_URL).filter(filter).build();
+
+        webClient.get().uri("/overloaded").exchange().flatMap(response -> response.releaseBody()).block();
+
+        assertThat(filter.getLimit()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,51 @@
+package org.kds.reactive.webclient.limit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LimitAlgorithmTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void aimdShouldGrowWhileUsedAndBackOffOnDrops() {
+        AimdLimit aimd = new AimdLimit(1, 12, 0.5);
+
+        assertThat(aimd.update(10, MS, 5, false)).isEqualTo(11);
+        assertThat(aimd.update(10, MS, 4, false)).isEqualTo(10);
+        assertThat(aimd.update(12, MS, 12, false)).isEqualTo(12);
+        assertThat(aimd.update(10, MS, 10, true)).isEqualTo(5);
+        assertThat(aimd.update(1, MS, 1, true)).isEqualTo(1);
+    }
+
+    @Test
+    public void vegasShouldGrowWithoutQueueingAndShrinkWithIt() {
+        VegasLimit vegas = new VegasLimit(1, 1000, 1000);
+
+        // the first sample only sets the RTT without load
+        assertThat(vegas.update(100, 10 * MS, 100, false)).isEqualTo(100);
+        // same RTT, nothing queued
+        assertThat(vegas.update(100, 10 * MS, 100, false)).isEqualTo(102);
+        // 100 * (1 - 10 / 20) = 50 queued
+        assertThat(vegas.update(100, 20 * MS, 100, false)).isEqualTo(98);
+        // 100 * (1 - 10 / 11) = 10 queued, between 3 and 6 times log10(100)
+        assertThat(vegas.update(100, 11 * MS, 100, false)).isEqualTo(100);
+        // barely used
+        assertThat(vegas.update(100, 20 * MS, 10, false)).isEqualTo(100);
+        assertThat(vegas.update(100, 20 * MS, 100, true)).isEqualTo(50);
+    }
+
+    @Test
+    public void vegasShouldProbeTheRttWithoutLoadAgain() {
+        VegasLimit vegas = new VegasLimit(1, 1000, 3);
+
+        vegas.update(100, 10 * MS, 100, false);
+        assertThat(vegas.update(100, 30 * MS, 100, false)).isEqualTo(98);
+        // third sample, the dependency is now 30ms without load
+        assertThat(vegas.update(100, 30 * MS, 100, false)).isEqualTo(100);
+        assertThat(vegas.update(100, 30 * MS, 100, false)).isEqualTo(102);
+    }
+}